@@ -0,0 +1,74 @@
+package org.openwes.mock.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * lookup throughput and footprint of the sku id index at catalog sizes up to 10M skus, needs a heap of about
+ * 1g for the largest size. a trial whose table takes more bytes per entry than expected fails.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class LongLongHashMapBenchmark {
+
+    /**
+     * the table doubles at a load of 3/4 and so never runs below a load of 3/8
+     */
+    private static final double MAX_BYTES_PER_ENTRY = 16 / 0.375;
+
+    /**
+     * 10M skus fill a 2^24 slot table to 0.6, 16 bytes per slot gives 26.8 bytes per entry
+     */
+    private static final int TEN_MILLION = 10_000_000;
+    private static final double MAX_BYTES_PER_ENTRY_AT_TEN_MILLION = 27;
+
+    @Param({"1000000", "10000000"})
+    private int entries;
+
+    private LongLongHashMap map;
+    private long[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        map = new LongLongHashMap(entries);
+        keys = new long[entries];
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < entries; i++) {
+            keys[i] = random.nextLong();
+            map.put(keys[i], i + 1);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void checkFootprint() {
+        double bytesPerEntry = map.bytesPerEntry();
+        double max = entries == TEN_MILLION ? MAX_BYTES_PER_ENTRY_AT_TEN_MILLION : MAX_BYTES_PER_ENTRY;
+        if (bytesPerEntry > max) {
+            throw new IllegalStateException("sku index takes " + bytesPerEntry + " bytes per entry, at most " + max
+                    + " expected for " + entries + " entries");
+        }
+    }
+
+    @Benchmark
+    public long get() {
+        return map.get(keys[ThreadLocalRandom.current().nextInt(entries)], -1);
+    }
+
+    @Benchmark
+    public long getAbsent() {
+        return map.get(ThreadLocalRandom.current().nextLong(), -1);
+    }
+}
@@ -0,0 +1,136 @@
+package org.openwes.mock.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * insert and expire throughput of the simulation timers, with and without a million pending events in the
+ * background, e.g. robots travelling to their stations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TimerWheelBenchmark {
+
+    private static final int BATCH = 10_000;
+
+    @Param({"HIERARCHICAL", "HASHED", "SCHEDULED_EXECUTOR"})
+    private String implementation;
+
+    @Param({"0", "1000000"})
+    private int preloaded;
+
+    private SimulationTimer timer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        timer = switch (implementation) {
+            case "HIERARCHICAL" -> new HierarchicalTimerWheel("bench-timer", 1, TimeUnit.MILLISECONDS, Runnable::run);
+            case "HASHED" -> new HashedTimerWheel("bench-timer", 1, TimeUnit.MILLISECONDS, 1024);
+            default -> new ScheduledExecutorTimer();
+        };
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < preloaded; i++) {
+            timer.schedule(() -> {
+            }, random.nextLong(60_000, 3_600_000), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        timer.stop();
+    }
+
+    /**
+     * a robot travel that is called off before it ends, schedule plus cancel
+     */
+    @Benchmark
+    public boolean scheduleAndCancel() {
+        long delay = ThreadLocalRandom.current().nextLong(1, 60_000);
+        return timer.schedule(() -> {
+        }, delay, TimeUnit.MILLISECONDS).cancel();
+    }
+
+    /**
+     * a batch of short think times, schedule until every one of them ran
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void scheduleAndExpire() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(BATCH);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < BATCH; i++) {
+            timer.schedule(latch::countDown, random.nextLong(10), TimeUnit.MILLISECONDS);
+        }
+        latch.await();
+    }
+
+    /**
+     * the single thread scheduled executor the simulation used before the wheels
+     */
+    private static class ScheduledExecutorTimer implements SimulationTimer {
+
+        private final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+
+        ScheduledExecutorTimer() {
+            executor.setRemoveOnCancelPolicy(true);
+        }
+
+        @Override
+        public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+            ScheduledFuture<?> future = executor.schedule(task, delay, unit);
+            return new Timeout() {
+                @Override
+                public boolean cancel() {
+                    return future.cancel(false);
+                }
+
+                @Override
+                public boolean isCancelled() {
+                    return future.isCancelled();
+                }
+
+                @Override
+                public boolean isExpired() {
+                    return future.isDone() && !future.isCancelled();
+                }
+            };
+        }
+
+        @Override
+        public int pending() {
+            return executor.getQueue().size();
+        }
+
+        @Override
+        public long expired() {
+            return executor.getCompletedTaskCount();
+        }
+
+        @Override
+        public long lagTicks() {
+            return 0;
+        }
+
+        @Override
+        public void stop() {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -1,9 +1,16 @@
 package org.openwes.mock.config;
 
 import lombok.Data;
+import org.openwes.mock.constants.SimulatedActionEnum;
+import org.openwes.mock.constants.SkuPopularityEnum;
+import org.openwes.mock.constants.ThinkTimeDistributionEnum;
+import org.openwes.mock.dto.ThinkTimeDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 @Component
 @Data
 @Slf4j
@@ -18,6 +25,81 @@ public class MockConfig {
 
     private boolean openMockPicking = false;
 
+    /**
+     * virtual seconds per wall clock second of the simulation, see VirtualClock
+     */
+    private double clockCompression = 1;
+
+    /**
+     * when enabled, order creation rates follow the NEW backlog in WES towards these depths, up to
+     * maxOrdersPerSecond of virtual time, see BacklogController. off keeps the fixed 10 s and 5 s cadences
+     */
+    private boolean backlogControlEnabled = false;
+    private int targetInboundBacklog = 200;
+    private int targetContainerTaskBacklog = 500;
+    private double maxOrdersPerSecond = 20;
+
+    /**
+     * think time distributions of the simulated operator and robot actions
+     */
+    private Map<SimulatedActionEnum, ThinkTimeDTO> thinkTimes = defaultThinkTimes();
+
+    /**
+     * put wall slot actions of one work station in flight at once, keeps WES station locking contention bounded
+     */
+    private int stationActionParallelism = 4;
+
+    /**
+     * simulated robots carrying containers to their destinations, 0 keeps delivering containers at once
+     */
+    private int robotFleetSize = 0;
+    private double robotSpeedCellsPerSecond = 1.5;
+    private long robotHandlingMillis = 2000;
+
+    /**
+     * inbound orders read per acceptance tick and the number of accept calls in flight at once
+     */
+    private int inboundAcceptanceBatchSize = 30;
+    private int inboundAcceptanceConcurrency = 8;
+
+    /**
+     * accept order completions in flight at once and their target rate, 0 sends them as fast as WES answers
+     */
+    private int acceptCompletionConcurrency = 16;
+    private double acceptCompletionRatePerSecond = 0;
+
+    /**
+     * shape of generated orders, see OrderProfileGenerator
+     */
+    private double orderLinesMean = 3;
+    private int orderLinesMax = 50;
+    private double orderQtyMean = 3;
+    private int orderQtyMax = 100;
+    private SkuPopularityEnum skuPopularity = SkuPopularityEnum.ZIPF;
+    private double zipfExponent = 1.0;
+
+    /**
+     * share of generated outbound orders with a line asking for more than the stock ledger holds
+     */
+    private double shortOutboundRatio = 0.05;
+
+    /**
+     * successful WES calls are logged 1 in callLogSampleRate, 0 logs only errors and slow calls
+     */
+    private int callLogSampleRate = 100;
+    private long callLogSlowThresholdMillis = 1000;
+
+    public static Map<SimulatedActionEnum, ThinkTimeDTO> defaultThinkTimes() {
+        Map<SimulatedActionEnum, ThinkTimeDTO> thinkTimes = new EnumMap<>(SimulatedActionEnum.class);
+        thinkTimes.put(SimulatedActionEnum.PICKING_ROUND, ThinkTimeDTO.builder()
+                .distribution(ThinkTimeDistributionEnum.FIXED).meanMillis(1000).build());
+        thinkTimes.put(SimulatedActionEnum.SCAN_BARCODE, ThinkTimeDTO.builder()
+                .distribution(ThinkTimeDistributionEnum.UNIFORM).minMillis(10).maxMillis(50).build());
+        thinkTimes.put(SimulatedActionEnum.CONTAINER_ARRIVAL, ThinkTimeDTO.builder()
+                .distribution(ThinkTimeDistributionEnum.FIXED).meanMillis(100).build());
+        return thinkTimes;
+    }
+
     public void setAllTrue() {
         this.openMockContainerArrived = true;
         this.openMockCreateInboundPlanOrder = true;
@@ -1,23 +1,81 @@
 package org.openwes.mock.config;
 
+import lombok.extern.slf4j.Slf4j;
+import org.openwes.mock.utils.HierarchicalTimerWheel;
+import org.openwes.mock.utils.SimulationTimer;
+import org.openwes.mock.utils.VirtualClock;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
+@Slf4j
 @Configuration
 public class ThreadPoolConfig {
 
+    /**
+     * run every simulated work station on its own virtual thread instead of the bounded platform pool,
+     * blocking calls and think time sleeps then only park the virtual thread.
+     */
+    @Value("${mock.work-station.virtual-threads:false}")
+    private boolean workStationVirtualThreads;
+
     @Bean("workStationExecutor")
     public Executor workStationExecutor() {
+        if (workStationVirtualThreads) {
+            log.info("work station executor uses virtual threads");
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("work-station-mock-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+
+        // rejects instead of running on the caller, the callers are timer threads that must not block on a
+        // picking round, the actors and arrival lanes retry a rejected round later
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(16);
         executor.setMaxPoolSize(64);
         executor.setQueueCapacity(1000);
         executor.setThreadNamePrefix("work-station-mock");
-        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * waits think times, robot travel and retry delays of the simulation. a hierarchical wheel with 1 ms ticks,
+     * scheduling and cancelling cost O(1) however many events are pending, due events are handed over to
+     * the dispatch pool so the wheel keeps its pace. delays are virtual time.
+     */
+    @Bean(name = "simulationTimer", destroyMethod = "stop")
+    public SimulationTimer simulationTimer(VirtualClock virtualClock) {
+        ThreadPoolTaskExecutor dispatcher = new ThreadPoolTaskExecutor();
+        dispatcher.setCorePoolSize(4);
+        dispatcher.setMaxPoolSize(4);
+        dispatcher.setQueueCapacity(100000);
+        dispatcher.setThreadNamePrefix("simulation-dispatch-");
+        dispatcher.setDaemon(true);
+        dispatcher.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        dispatcher.initialize();
+        return virtualClock.compress(new HierarchicalTimerWheel("simulation-timer", 1, TimeUnit.MILLISECONDS, dispatcher));
+    }
+
+    /**
+     * runs the arrivals of the open-loop load engine, rejects instead of running on the caller
+     * so a saturated pool never slows down the arrival schedule.
+     */
+    @Bean("orderLoadExecutor")
+    public Executor orderLoadExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(32);
+        executor.setMaxPoolSize(32);
+        executor.setQueueCapacity(10000);
+        executor.setThreadNamePrefix("order-load-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
         executor.initialize();
         return executor;
     }
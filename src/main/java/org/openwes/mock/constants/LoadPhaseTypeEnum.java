@@ -0,0 +1,19 @@
+package org.openwes.mock.constants;
+
+public enum LoadPhaseTypeEnum {
+
+    /**
+     * rate factor changes linearly from the factor of the previous phase to the target factor
+     */
+    RAMP_UP,
+
+    /**
+     * rate factor holds the target factor
+     */
+    PLATEAU,
+
+    /**
+     * rate factor jumps to the target factor and falls back to the previous factor when the phase ends
+     */
+    SPIKE
+}
@@ -0,0 +1,19 @@
+package org.openwes.mock.constants;
+
+public enum SimulatedActionEnum {
+
+    /**
+     * operator pause between two picking rounds of a work station
+     */
+    PICKING_ROUND,
+
+    /**
+     * operator handling time after scanning a barcode
+     */
+    SCAN_BARCODE,
+
+    /**
+     * robot interval between two containers arriving at the same work station
+     */
+    CONTAINER_ARRIVAL
+}
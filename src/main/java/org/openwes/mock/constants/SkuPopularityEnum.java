@@ -0,0 +1,19 @@
+package org.openwes.mock.constants;
+
+public enum SkuPopularityEnum {
+
+    /**
+     * every sku is equally likely
+     */
+    UNIFORM,
+
+    /**
+     * the sku of popularity rank k is picked with a probability proportional to 1 / k^zipfExponent
+     */
+    ZIPF,
+
+    /**
+     * the top 20% of the skus get 80% of the picks, the next 30% get 15% and the rest 5%
+     */
+    ABC
+}
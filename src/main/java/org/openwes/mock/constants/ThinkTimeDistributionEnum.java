@@ -0,0 +1,24 @@
+package org.openwes.mock.constants;
+
+public enum ThinkTimeDistributionEnum {
+
+    /**
+     * always meanMillis
+     */
+    FIXED,
+
+    /**
+     * evenly between minMillis and maxMillis
+     */
+    UNIFORM,
+
+    /**
+     * exponential with meanMillis, memoryless arrivals
+     */
+    EXPONENTIAL,
+
+    /**
+     * log-normal with meanMillis and a shape of 0.5, a long tail of slow operators
+     */
+    LOG_NORMAL
+}
@@ -0,0 +1,23 @@
+package org.openwes.mock.controller;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.openwes.mock.dto.SamplingBenchmarkDTO;
+import org.openwes.mock.service.SamplingBenchmarkService;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/mock/benchmark")
+@RequiredArgsConstructor
+@Validated
+public class MockBenchmarkController {
+
+    private final SamplingBenchmarkService samplingBenchmarkService;
+
+    @PostMapping("/sampling")
+    public SamplingBenchmarkDTO benchmarkSampling(@RequestParam(defaultValue = "20") @Min(1) @Max(1000) int iterations) {
+        return samplingBenchmarkService.run(iterations);
+    }
+}
@@ -0,0 +1,35 @@
+package org.openwes.mock.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.openwes.mock.controller.parameter.LoadProfileDTO;
+import org.openwes.mock.dto.LoadEngineStatusDTO;
+import org.openwes.mock.scheduler.OpenLoopOrderLoadEngine;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/mock")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class MockLoadController {
+
+    private final OpenLoopOrderLoadEngine openLoopOrderLoadEngine;
+
+    @PutMapping("/load")
+    public void startLoad(@RequestBody @Valid LoadProfileDTO loadProfileDTO) {
+        openLoopOrderLoadEngine.start(loadProfileDTO);
+    }
+
+    @DeleteMapping("/load")
+    public void stopLoad() {
+        openLoopOrderLoadEngine.stop();
+    }
+
+    @GetMapping("/load")
+    public LoadEngineStatusDTO getLoad() {
+        return openLoopOrderLoadEngine.status();
+    }
+}
@@ -0,0 +1,135 @@
+package org.openwes.mock.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.openwes.mock.dto.AcceptCompletionStatsDTO;
+import org.openwes.mock.dto.BacklogControllerDTO;
+import org.openwes.mock.dto.ContainerPoolStatsDTO;
+import org.openwes.mock.dto.MockStatsDTO;
+import org.openwes.mock.dto.RobotFleetStatsDTO;
+import org.openwes.mock.dto.SimulationTimerStatsDTO;
+import org.openwes.mock.dto.SkuIndexStatsDTO;
+import org.openwes.mock.dto.SkuReservoirStatsDTO;
+import org.openwes.mock.dto.StationActorStatsDTO;
+import org.openwes.mock.dto.StockLedgerStatsDTO;
+import org.openwes.mock.scheduler.MockContainerArrivedScheduler;
+import org.openwes.mock.scheduler.MockOrderPickingScheduler;
+import org.openwes.mock.scheduler.RobotFleetSimulator;
+import org.openwes.mock.service.AcceptOrderCompletionPipeline;
+import org.openwes.mock.service.ApiStatsService;
+import org.openwes.mock.service.BacklogController;
+import org.openwes.mock.service.ContainerPoolService;
+import org.openwes.mock.service.SkuIdIndexService;
+import org.openwes.mock.service.SkuReservoirService;
+import org.openwes.mock.service.StockLedgerService;
+import org.openwes.mock.utils.CallLogger;
+import org.openwes.mock.utils.JsonRequestBody;
+import org.openwes.mock.utils.SimulationTimer;
+import org.openwes.mock.utils.VirtualClock;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/mock")
+@RequiredArgsConstructor
+@Slf4j
+public class MockStatsController {
+
+    private final ApiStatsService apiStatsService;
+    private final CallLogger callLogger;
+    private final MockOrderPickingScheduler mockOrderPickingScheduler;
+    private final MockContainerArrivedScheduler mockContainerArrivedScheduler;
+    private final SkuIdIndexService skuIdIndexService;
+    private final SkuReservoirService skuReservoirService;
+    private final ContainerPoolService containerPoolService;
+    private final StockLedgerService stockLedgerService;
+    private final AcceptOrderCompletionPipeline acceptOrderCompletionPipeline;
+    private final SimulationTimer simulationTimer;
+    private final RobotFleetSimulator robotFleetSimulator;
+    private final VirtualClock virtualClock;
+    private final BacklogController backlogController;
+
+    @GetMapping("/stats")
+    public MockStatsDTO getStats() {
+        return MockStatsDTO.builder()
+                .endpoints(apiStatsService.snapshot())
+                .requestBodyBytes(JsonRequestBody.getTotalBytesWritten())
+                .requestBodies(JsonRequestBody.getTotalBodiesWritten())
+                .callLogDropped(callLogger.getDropped())
+                .build();
+    }
+
+    @GetMapping("/stats/stations")
+    public List<StationActorStatsDTO> getStationStats() {
+        return mockOrderPickingScheduler.getActorStats();
+    }
+
+    /**
+     * queued outbound containers per destination work station
+     */
+    @GetMapping("/stats/arrival-lanes")
+    public Map<Long, Integer> getArrivalLanes() {
+        return mockContainerArrivedScheduler.getLaneSizes();
+    }
+
+    @GetMapping("/stats/sku-index")
+    public SkuIndexStatsDTO getSkuIndexStats() {
+        return skuIdIndexService.stats();
+    }
+
+    @GetMapping("/stats/sku-reservoir")
+    public SkuReservoirStatsDTO getSkuReservoirStats() {
+        return skuReservoirService.stats();
+    }
+
+    @GetMapping("/stats/stock-ledger")
+    public StockLedgerStatsDTO getStockLedgerStats() {
+        return stockLedgerService.stats();
+    }
+
+    @GetMapping("/stats/accept-completion")
+    public AcceptCompletionStatsDTO getAcceptCompletionStats() {
+        return acceptOrderCompletionPipeline.stats();
+    }
+
+    @GetMapping("/stats/container-pool")
+    public ContainerPoolStatsDTO getContainerPoolStats() {
+        return containerPoolService.stats();
+    }
+
+    /**
+     * backlog depth, creation rate and sustained rate of the order generators
+     */
+    @GetMapping("/stats/backlog")
+    public BacklogControllerDTO getBacklogState() {
+        return backlogController.state();
+    }
+
+    @GetMapping("/stats/robot-fleet")
+    public RobotFleetStatsDTO getRobotFleetStats() {
+        return robotFleetSimulator.stats();
+    }
+
+    /**
+     * pending think times, arrival intervals and retries of the simulation
+     */
+    @GetMapping("/stats/simulation-timer")
+    public SimulationTimerStatsDTO getSimulationTimerStats() {
+        return SimulationTimerStatsDTO.builder()
+                .pending(simulationTimer.pending())
+                .expired(simulationTimer.expired())
+                .lagTicks(simulationTimer.lagTicks())
+                .clockCompression(virtualClock.compression())
+                .virtualTimeMillis(virtualClock.millis())
+                .build();
+    }
+
+    @DeleteMapping("/stats")
+    public void resetStats() {
+        apiStatsService.reset();
+
+        log.info("Mock stats reset");
+    }
+}
@@ -0,0 +1,36 @@
+package org.openwes.mock.controller.parameter;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.openwes.mock.constants.LoadPhaseTypeEnum;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * open-loop load profile, the order rates are multiplied by the rate factor of the current phase.
+ * after the last phase the last non spike factor is held until the engine is stopped.
+ */
+@Data
+public class LoadProfileDTO {
+
+    @Min(0)
+    private double inboundOrdersPerSecond = 1;
+    @Min(0)
+    private double outboundOrdersPerSecond = 1;
+
+    @Valid
+    private List<LoadPhaseDTO> phases = new ArrayList<>();
+
+    @Data
+    public static class LoadPhaseDTO {
+        @NotNull
+        private LoadPhaseTypeEnum phaseType;
+        @Min(0)
+        private long durationSeconds;
+        @Min(0)
+        private double rateFactor = 1;
+    }
+}
@@ -1,6 +1,12 @@
 package org.openwes.mock.controller.parameter;
 
 import lombok.Data;
+import org.openwes.mock.config.MockConfig;
+import org.openwes.mock.constants.SimulatedActionEnum;
+import org.openwes.mock.constants.SkuPopularityEnum;
+import org.openwes.mock.dto.ThinkTimeDTO;
+
+import java.util.Map;
 
 @Data
 public class MockConfigDTO {
@@ -14,4 +20,37 @@ public class MockConfigDTO {
 
     private boolean openMockPicking = true;
 
+    private double clockCompression = 1;
+
+    private boolean backlogControlEnabled = false;
+    private int targetInboundBacklog = 200;
+    private int targetContainerTaskBacklog = 500;
+    private double maxOrdersPerSecond = 20;
+
+    private Map<SimulatedActionEnum, ThinkTimeDTO> thinkTimes = MockConfig.defaultThinkTimes();
+
+    private int stationActionParallelism = 4;
+
+    private int robotFleetSize = 0;
+    private double robotSpeedCellsPerSecond = 1.5;
+    private long robotHandlingMillis = 2000;
+
+    private int inboundAcceptanceBatchSize = 30;
+    private int inboundAcceptanceConcurrency = 8;
+
+    private int acceptCompletionConcurrency = 16;
+    private double acceptCompletionRatePerSecond = 0;
+
+    private double orderLinesMean = 3;
+    private int orderLinesMax = 50;
+    private double orderQtyMean = 3;
+    private int orderQtyMax = 100;
+    private SkuPopularityEnum skuPopularity = SkuPopularityEnum.ZIPF;
+    private double zipfExponent = 1.0;
+
+    private double shortOutboundRatio = 0.05;
+
+    private int callLogSampleRate = 100;
+    private long callLogSlowThresholdMillis = 1000;
+
 }
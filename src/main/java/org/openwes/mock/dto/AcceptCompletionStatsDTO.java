@@ -0,0 +1,25 @@
+package org.openwes.mock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AcceptCompletionStatsDTO {
+
+    private int inFlight;
+
+    /**
+     * accept orders read again while their completion was still in flight
+     */
+    private long skippedInFlight;
+
+    /**
+     * from dispatch to the WES response, throughput as completions per second
+     */
+    private LatencyStatsDTO completion;
+}
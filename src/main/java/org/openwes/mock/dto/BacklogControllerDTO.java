@@ -0,0 +1,17 @@
+package org.openwes.mock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BacklogControllerDTO {
+
+    private boolean enabled;
+    private BacklogLoopDTO inbound;
+    private BacklogLoopDTO outbound;
+}
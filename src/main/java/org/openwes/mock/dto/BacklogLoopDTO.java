@@ -0,0 +1,37 @@
+package org.openwes.mock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * state of the loop that paces one order generator by the backlog it causes in WES
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BacklogLoopDTO {
+
+    /**
+     * NEW rows of this table are the backlog, counted up to countCap
+     */
+    private String backlogTable;
+    private int backlog;
+    private int targetBacklog;
+    private int countCap;
+
+    /**
+     * orders per second of virtual time the generator is allowed to create now
+     */
+    private double ratePerSecond;
+
+    /**
+     * average rate while the backlog was held near the target, the throughput WES sustains
+     */
+    private double sustainedRatePerSecond;
+
+    private long created;
+    private long lastSampleAtMillis;
+}
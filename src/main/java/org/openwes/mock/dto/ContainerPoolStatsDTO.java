@@ -0,0 +1,27 @@
+package org.openwes.mock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContainerPoolStatsDTO {
+
+    private int containers;
+    private long availableSlots;
+
+    /**
+     * reservations served, containers skipped because they were full and reservations that found no container
+     */
+    private long hits;
+    private long misses;
+    private long exhaustions;
+
+    private long releases;
+    private long refreshes;
+    private long lastRefreshAtMillis;
+}
@@ -0,0 +1,28 @@
+package org.openwes.mock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * a NEW row of e_container_task waiting to be delivered by the mock
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContainerTaskDTO {
+
+    private Long id;
+    private String containerCode;
+    private String containerFace;
+    private Object destinations;
+    private String taskCode;
+    private String containerTaskType;
+
+    /**
+     * robot carrying the container, set by RobotFleetSimulator on arrival
+     */
+    private String robotCode;
+}
@@ -0,0 +1,31 @@
+package org.openwes.mock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LatencyStatsDTO {
+
+    private String name;
+
+    private long successCount;
+    private long errorCount;
+
+    /**
+     * average rates since the recorder was created or last reset
+     */
+    private double successPerSecond;
+    private double errorPerSecond;
+
+    private double meanMillis;
+    private double p50Millis;
+    private double p90Millis;
+    private double p99Millis;
+    private double p999Millis;
+    private double maxMillis;
+}
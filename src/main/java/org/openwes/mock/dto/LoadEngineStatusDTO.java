@@ -0,0 +1,35 @@
+package org.openwes.mock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.openwes.mock.constants.LoadPhaseTypeEnum;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoadEngineStatusDTO {
+
+    private boolean running;
+    private double elapsedSeconds;
+
+    /**
+     * null when no phase is active, the held factor applies then
+     */
+    private LoadPhaseTypeEnum currentPhase;
+    private double rateFactor;
+
+    private double inboundTargetPerSecond;
+    private double outboundTargetPerSecond;
+
+    private long inboundSent;
+    private long outboundSent;
+
+    /**
+     * arrivals the executor could not accept, they are counted instead of delaying the schedule
+     */
+    private long inboundRejected;
+    private long outboundRejected;
+}
@@ -0,0 +1,28 @@
+package org.openwes.mock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MockStatsDTO {
+
+    private List<LatencyStatsDTO> endpoints;
+
+    /**
+     * json bytes streamed into request bodies, see JsonRequestBody
+     */
+    private long requestBodyBytes;
+    private long requestBodies;
+
+    /**
+     * call log entries dropped because the log ring buffer was full
+     */
+    private long callLogDropped;
+}
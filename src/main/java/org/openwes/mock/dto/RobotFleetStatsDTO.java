@@ -0,0 +1,33 @@
+package org.openwes.mock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RobotFleetStatsDTO {
+
+    private int robots;
+    private int idle;
+    private int travelling;
+
+    /**
+     * robots holding their container at the destination until the station took it
+     */
+    private int atDestination;
+    private int waitingMissions;
+
+    private long dispatched;
+    private long arrived;
+    private long released;
+
+    /**
+     * from robot assignment to arrival, and from dispatch to robot assignment
+     */
+    private long avgTravelMillis;
+    private long avgWaitForRobotMillis;
+}
@@ -0,0 +1,28 @@
+package org.openwes.mock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SamplingBenchmarkDTO {
+
+    /**
+     * table sizes the benchmark ran against, seed m_sku_main_data through POST /init/sku to compare sizes
+     */
+    private long skuRows;
+    private long skuBatchStockRows;
+
+    private int iterations;
+
+    /**
+     * one entry per strategy and query: offset/sku, keyset/sku, offset/sku-batch-stock, keyset/sku-batch-stock
+     */
+    private List<LatencyStatsDTO> results;
+}
@@ -0,0 +1,23 @@
+package org.openwes.mock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SimulationTimerStatsDTO {
+
+    private int pending;
+    private long expired;
+    private long lagTicks;
+
+    /**
+     * virtual clock the delays are read in
+     */
+    private double clockCompression;
+    private long virtualTimeMillis;
+}
@@ -0,0 +1,20 @@
+package org.openwes.mock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SkuIndexStatsDTO {
+
+    private boolean loaded;
+    private long loadMillis;
+    private int entries;
+    private int capacity;
+    private long memoryBytes;
+    private double bytesPerEntry;
+}
@@ -0,0 +1,19 @@
+package org.openwes.mock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SkuReservoirStatsDTO {
+
+    private boolean loaded;
+    private boolean offHeap;
+    private int entries;
+    private long memoryBytes;
+    private double bytesPerEntry;
+}
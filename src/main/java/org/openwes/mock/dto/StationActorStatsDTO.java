@@ -0,0 +1,27 @@
+package org.openwes.mock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StationActorStatsDTO {
+
+    private Long workStationId;
+
+    private long rounds;
+    private long errors;
+    private long actions;
+    private double actionsPerSecond;
+
+    /**
+     * duration of a picking round, think time excluded. the percentiles over all stations are the
+     * station/cycle endpoint of /mock/stats
+     */
+    private double meanCycleMillis;
+    private double maxCycleMillis;
+}
@@ -0,0 +1,33 @@
+package org.openwes.mock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockLedgerStatsDTO {
+
+    private int stocks;
+    private long availableQty;
+
+    /**
+     * outbound orders built from the ledger since startup, shortOrders of them ask for more than is available
+     */
+    private long orders;
+    private long shortOrders;
+    private long reservedLines;
+    private long reservedQty;
+
+    /**
+     * picks that hit a stock without available qty
+     */
+    private long emptyDraws;
+
+    private long resyncs;
+    private long lastResyncAtMillis;
+    private long lastResyncDurationMillis;
+}
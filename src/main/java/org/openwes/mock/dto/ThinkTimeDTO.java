@@ -0,0 +1,22 @@
+package org.openwes.mock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.openwes.mock.constants.ThinkTimeDistributionEnum;
+
+/**
+ * think time distribution of one simulated action, samples are clamped to [minMillis, maxMillis]
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ThinkTimeDTO {
+
+    private ThinkTimeDistributionEnum distribution;
+    private long meanMillis;
+    private long minMillis;
+    private long maxMillis;
+}
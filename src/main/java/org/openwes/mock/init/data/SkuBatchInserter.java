@@ -2,6 +2,8 @@ package org.openwes.mock.init.data;
 
 import lombok.RequiredArgsConstructor;
 import org.openwes.mock.service.DatabaseQueryService;
+import org.openwes.mock.service.SkuIdIndexService;
+import org.openwes.mock.service.SkuReservoirService;
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.PreparedStatementCreator;
@@ -27,6 +29,8 @@ public class SkuBatchInserter {
     private static final int THREAD_POOL_SIZE = 8; // Adjust based on your system
 
     private final DatabaseQueryService databaseQueryService;
+    private final SkuIdIndexService skuIdIndexService;
+    private final SkuReservoirService skuReservoirService;
 
 
     /**
@@ -157,6 +161,11 @@ public class SkuBatchInserter {
             System.err.println("Thread " + threadId + ": Batch insertion mismatch. Expected: " +
                     records.size() + ", Actual: " + totalInserted);
         }
+
+        for (SkuDataGenerator.SkuRecord record : records) {
+            skuIdIndexService.put(record.getWarehouseCode(), record.getSkuCode(), record.getId());
+            skuReservoirService.add(record.getId(), record.getWarehouseCode(), record.getOwnerCode(), record.getSkuCode());
+        }
     }
 
     /**
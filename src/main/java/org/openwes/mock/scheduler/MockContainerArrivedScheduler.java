@@ -3,96 +3,250 @@ package org.openwes.mock.scheduler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.openwes.mock.config.MockConfig;
+import org.openwes.mock.constants.SimulatedActionEnum;
 import org.openwes.mock.constants.WorkStationStatusEnum;
+import org.openwes.mock.dto.ContainerTaskDTO;
+import org.openwes.mock.dto.PositionDTO;
 import org.openwes.mock.dto.WorkLocationExtend;
 import org.openwes.mock.dto.WorkStationDTO;
 import org.openwes.mock.dto.WorkStationVO;
 import org.openwes.mock.service.ApiService;
-import org.openwes.mock.service.DatabaseQueryService;
+import org.openwes.mock.service.ContainerTaskPoller;
 import org.openwes.mock.service.StationService;
+import org.openwes.mock.service.ThinkTimeService;
 import org.openwes.mock.utils.JsonUtils;
-import org.openwes.mock.utils.ThreadUtils;
+import org.openwes.mock.utils.SimulationTimer;
+import org.openwes.mock.utils.VirtualClock;
+import org.openwes.mock.utils.WorkStationVOReader;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
 import java.util.*;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * delivers NEW container tasks from the poller. every task is carried by a robot of the RobotFleetSimulator,
+ * an outbound container then joins the lane of its destination work station and every station drains its own
+ * lane, so a busy station only delays its own containers. the robot is released once the station took it.
+ */
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class MockContainerArrivedScheduler {
 
-    private final DatabaseQueryService databaseQueryService;
+    private static final int MAX_TASKS_PER_TICK = 1000;
+    private static final long STATION_RETRY_MILLIS = 1000;
+    private static final Set<WorkStationVOReader.Part> ARRIVAL_PARTS =
+            Collections.unmodifiableSet(EnumSet.of(WorkStationVOReader.Part.WORK_LOCATION_AREA));
+    private static final String DEFAULT_ROBOT_CODE = "robot_1";
+    private static final String DEFAULT_LOCATION_CODE = "locationCode_1";
+
+    private final ContainerTaskPoller containerTaskPoller;
     private final StationService stationService;
     private final ApiService apiService;
     private final MockConfig mockConfig;
+    private final ThinkTimeService thinkTimeService;
+    private final Executor workStationExecutor;
+    private final SimulationTimer simulationTimer;
+    private final RobotFleetSimulator robotFleetSimulator;
+    private final VirtualClock virtualClock;
+
+    private final Map<Long, StationArrivalLane> lanes = new ConcurrentHashMap<>();
 
-    @Scheduled(cron = "0/3 * * * * *")
+    @Scheduled(fixedDelay = VirtualClock.TICK_MILLIS)
     public void schedule() {
 
-        if (!mockConfig.isOpenMockContainerArrived()) {
+        if (!virtualClock.isDue("container-arrived", 100)) {
             return;
         }
 
-        List<Map<String, Object>> result = databaseQueryService.queryContainerTasks();
-        if (result.isEmpty()) {
+        if (!mockConfig.isOpenMockContainerArrived()) {
+            lanes.values().forEach(StationArrivalLane::clear);
             return;
         }
 
-        for (Map<String, Object> map : result) {
-            String containerCode = (String) map.get("container_code");
-            String containerFace = (String) map.get("container_face");
-            Object destinations = Optional.ofNullable(map.get("destinations")).orElse("");
-            String taskCode = (String) map.get("task_code");
-            String containerTaskType = (String) map.get("container_task_type");
+        List<ContainerTaskDTO> tasks = new ArrayList<>();
+        containerTaskPoller.drainTo(tasks, MAX_TASKS_PER_TICK);
+        boolean robots = mockConfig.getRobotFleetSize() > 0;
+        Map<Long, PositionDTO> stationPositions = robots ? getStationPositions() : Map.of();
 
-            if ("OUTBOUND".equals(containerTaskType)) {
+        for (ContainerTaskDTO task : tasks) {
+            if (!"OUTBOUND".equals(task.getContainerTaskType())) {
+                carry(robots, task, robotFleetSimulator.cellOf(getDestinationCode(task)), this::sendTaskStatusUpdateAsync);
+                continue;
+            }
 
-                boolean sentResult = sendArrived(containerCode, containerFace, destinations, taskCode);
-                ThreadUtils.sleep(100);
-                if (!sentResult) {
-                    log.info("send arrived failed");
+            Long stationId = getDestinationStationId(task);
+            if (stationId == null) {
+                log.debug("container task {} has no destination station", task.getTaskCode());
+                containerTaskPoller.release(task);
+                continue;
+            }
+            carry(robots, task, stationCell(stationId, stationPositions.get(stationId)), arrived -> {
+                if (!mockConfig.isOpenMockContainerArrived()) {
+                    discard(arrived);
                     return;
                 }
+                StationArrivalLane lane = lanes.computeIfAbsent(stationId, this::newLane);
+                lane.add(arrived);
+                lane.kick();
+            });
+        }
+
+        lanes.values().forEach(StationArrivalLane::kick);
+    }
+
+    /**
+     * moves the container from its storage cell to the destination on a robot, or hands it over at once
+     * when the fleet is switched off
+     */
+    private void carry(boolean robots, ContainerTaskDTO task, int[] destinationCell, Consumer<ContainerTaskDTO> onArrival) {
+        if (!robots) {
+            onArrival.accept(task);
+            return;
+        }
+        robotFleetSimulator.dispatch(task, robotFleetSimulator.cellOf(task.getContainerCode()), destinationCell,
+                onArrival, command -> simulationTimer.schedule(command, 0, TimeUnit.MILLISECONDS));
+    }
+
+    private int[] stationCell(Long stationId, PositionDTO position) {
+        if (position == null || position.getX() == null || position.getY() == null) {
+            return robotFleetSimulator.cellOf(stationId);
+        }
+        return new int[]{position.getX(), position.getY()};
+    }
+
+    private Map<Long, PositionDTO> getStationPositions() {
+        Map<Long, PositionDTO> positions = new HashMap<>();
+        for (WorkStationDTO workStation : stationService.getAllWorkStation()) {
+            if (workStation.getPosition() != null) {
+                positions.put(workStation.getId(), workStation.getPosition());
             }
+        }
+        return positions;
+    }
+
+    private StationArrivalLane newLane(Long stationId) {
+        return new StationArrivalLane(stationId, task -> deliver(stationId, task), this::discard,
+                () -> thinkTimeService.sampleMillis(SimulatedActionEnum.CONTAINER_ARRIVAL), STATION_RETRY_MILLIS, workStationExecutor, simulationTimer, virtualClock);
+    }
 
-            sendTaskStatusUpdate(taskCode, containerCode);
+    private void discard(ContainerTaskDTO task) {
+        robotFleetSimulator.release(task.getRobotCode());
+        containerTaskPoller.release(task);
+    }
+
+    public Map<Long, Integer> getLaneSizes() {
+        Map<Long, Integer> sizes = new TreeMap<>();
+        lanes.forEach((stationId, lane) -> sizes.put(stationId, lane.size()));
+        return sizes;
+    }
+
+    private static Long getDestinationStationId(ContainerTaskDTO task) {
+        Object destinations = Optional.ofNullable(task.getDestinations()).orElse("");
+        try {
+            List<Long> stationIds = JsonUtils.string2List(JsonUtils.obj2String(destinations), Long.class);
+            return CollectionUtils.isEmpty(stationIds) ? null : stationIds.getFirst();
+        } catch (Exception e) {
+            return null;
         }
+    }
 
+    /**
+     * the robot leaves the station once the station took the container
+     */
+    private boolean deliver(Long stationId, ContainerTaskDTO task) {
+        String locationCode = sendArrived(task, stationId);
+        if (locationCode == null) {
+            log.debug("send arrived failed");
+            return false;
+        }
+        robotFleetSimulator.release(task.getRobotCode());
+
+        try {
+            sendTaskStatusUpdate(task, reportedLocationCode(task, locationCode));
+            containerTaskPoller.complete(task);
+        } catch (Exception e) {
+            log.error("container task {} status report error", task.getTaskCode(), e);
+            containerTaskPoller.release(task);
+        }
+        return true;
+    }
+
+    private void sendTaskStatusUpdateAsync(ContainerTaskDTO task) {
+        String locationCode = reportedLocationCode(task, getDestinationCode(task));
+        apiService.callAsync("api/execute?apiType=CONTAINER_TASK_STATUS_REPORT", taskStatusUpdateBody(task, locationCode))
+                .whenComplete((result, throwable) -> {
+                    robotFleetSimulator.release(task.getRobotCode());
+                    if (throwable == null) {
+                        containerTaskPoller.complete(task);
+                    } else {
+                        containerTaskPoller.release(task);
+                    }
+                });
     }
 
-    private void sendTaskStatusUpdate(String taskCode, String containerCode) {
-        Map<String, Object> requestBody = Map.of("taskCode", taskCode,
-                "containerCode", containerCode,
+    private void sendTaskStatusUpdate(ContainerTaskDTO task, String locationCode) {
+        apiService.call("api/execute?apiType=CONTAINER_TASK_STATUS_REPORT", taskStatusUpdateBody(task, locationCode));
+    }
+
+    private static Map<String, Object> taskStatusUpdateBody(ContainerTaskDTO task, String locationCode) {
+        return Map.of("taskCode", task.getTaskCode(),
+                "containerCode", task.getContainerCode(),
                 "taskStatus", "WCS_SUCCEEDED",
-                "robotCode", "robot_1",
-                "locationCode", "locationCode_1");
+                "robotCode", robotCode(task),
+                "locationCode", locationCode);
+    }
 
-        apiService.call("api/execute?apiType=CONTAINER_TASK_STATUS_REPORT", requestBody);
+    /**
+     * only a container carried by a simulated robot reports where it went, otherwise the report keeps the
+     * fixed location code it always had
+     */
+    private static String reportedLocationCode(ContainerTaskDTO task, String locationCode) {
+        if (task.getRobotCode() == null || ObjectUtils.isEmpty(locationCode)) {
+            return DEFAULT_LOCATION_CODE;
+        }
+        return locationCode;
     }
 
-    private boolean sendArrived(String containerCode, String containerFace, Object destinations, String taskCode) {
+    private static String robotCode(ContainerTaskDTO task) {
+        return Optional.ofNullable(task.getRobotCode()).orElse(DEFAULT_ROBOT_CODE);
+    }
 
-        List<Long> stationIds = JsonUtils.string2List(JsonUtils.obj2String(destinations), Long.class);
+    private static String getDestinationCode(ContainerTaskDTO task) {
+        try {
+            List<String> destinations = JsonUtils.string2List(JsonUtils.obj2String(task.getDestinations()), String.class);
+            return CollectionUtils.isEmpty(destinations) ? null : destinations.getFirst();
+        } catch (Exception e) {
+            return null;
+        }
+    }
 
-        Long stationId = stationIds.getFirst();
+    /**
+     * @return the location code the container arrived at, null when the station can not take it now
+     */
+    private String sendArrived(ContainerTaskDTO task, Long stationId) {
 
-        WorkStationVO workStationVO = stationService.getWorkStationVO(stationId);
+        WorkStationVO workStationVO = stationService.getWorkStationVO(stationId, ARRIVAL_PARTS);
         if (workStationVO == null || workStationVO.getWorkStationStatus() == WorkStationStatusEnum.OFFLINE) {
-            return false;
+            return null;
         }
 
         List<WorkLocationExtend> workLocationViews = workStationVO.getWorkLocationArea().getWorkLocationViews();
         if (CollectionUtils.isEmpty(workLocationViews)) {
-            return false;
+            return null;
         }
 
         boolean hasContainer = isHasContainer(workLocationViews);
         if (hasContainer) {
-            log.info("there are still exist container on the work station location. do not push");
-            return false;
+            log.debug("there are still exist container on the work station location. do not push");
+            return null;
         }
 
         List<WorkLocationExtend> workLocations = workStationVO.getWorkLocationArea().getWorkLocationViews();
@@ -101,9 +255,9 @@ public class MockContainerArrivedScheduler {
         locationCode = getLocationCode(workLocations);
         workLocationCode = getWorkLocationCode(workLocations);
 
-        Map<String, Object> containerDetails = Map.of("containerCode", containerCode,
-                "face", containerFace,
-                "robotCode", "robot_1",
+        Map<String, Object> containerDetails = Map.of("containerCode", task.getContainerCode(),
+                "face", task.getContainerFace(),
+                "robotCode", robotCode(task),
                 "locationCode", locationCode
         );
 
@@ -111,10 +265,12 @@ public class MockContainerArrivedScheduler {
         objects.add(containerDetails);
 
         Map<String, Object> requestBody = Map.of("workLocationCode", workLocationCode,
-                "workStationId", stationIds.getFirst(),
+                "workStationId", stationId,
                 "containerDetails", objects);
 
-        return apiService.call("api/execute?apiType=CONTAINER_ARRIVE", requestBody);
+        boolean arrived = apiService.call("api/execute?apiType=CONTAINER_ARRIVE", requestBody);
+        stationService.invalidateWorkStationSnapshot(stationId);
+        return arrived ? locationCode : null;
     }
 
     private static boolean isHasContainer(List<WorkLocationExtend> workLocationViews) {
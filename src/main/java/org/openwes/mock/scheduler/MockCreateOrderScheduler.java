@@ -3,89 +3,91 @@ package org.openwes.mock.scheduler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.openwes.mock.config.MockConfig;
-import org.openwes.mock.service.ApiService;
-import org.openwes.mock.service.DatabaseQueryService;
+import org.openwes.mock.service.BacklogController;
+import org.openwes.mock.service.OrderCreateService;
+import org.openwes.mock.utils.VirtualClock;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-import java.util.Map;
-import java.util.Random;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
+/**
+ * order creation paced by the BacklogController, or every 10 and 5 seconds of virtual time when backlog
+ * control is off. it pauses while the open-loop load engine is running.
+ */
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class MockCreateOrderScheduler {
 
-    private final DatabaseQueryService databaseQueryService;
-    private final ApiService apiService;
+    private static final int MAX_IN_FLIGHT = 64;
+
+    private final OrderCreateService orderCreateService;
+    private final OpenLoopOrderLoadEngine openLoopOrderLoadEngine;
+    private final BacklogController backlogController;
     private final MockConfig mockConfig;
+    private final VirtualClock virtualClock;
+
+    private final AtomicInteger inboundInFlight = new AtomicInteger();
+    private final AtomicInteger outboundInFlight = new AtomicInteger();
 
-    @Scheduled(cron = "0/10 * * * * *")
+    @Scheduled(fixedDelay = VirtualClock.TICK_MILLIS)
     public void scheduleCreateInboundPlanOrder() {
 
-        if (!mockConfig.isOpenMockCreateInboundPlanOrder()) {
+        if (!mockConfig.isOpenMockCreateInboundPlanOrder() || openLoopOrderLoadEngine.isRunning()) {
+            return;
+        }
+
+        if (mockConfig.isBacklogControlEnabled()) {
+            create(backlogController.acquireInbound(MAX_IN_FLIGHT - inboundInFlight.get()), inboundInFlight,
+                    orderCreateService::createInboundPlanOrder);
+            return;
+        }
+
+        if (!virtualClock.isDue("create-inbound-plan-order", 10_000)) {
             return;
         }
 
         try {
-            createInboundPlanOrder();
+            orderCreateService.createInboundPlanOrder().join();
         } catch (Exception e) {
             log.error("create inbound plan order error", e);
         }
     }
 
-    @Scheduled(cron = "0/5 * * * * *")
+    @Scheduled(fixedDelay = VirtualClock.TICK_MILLIS)
     public void scheduleCreateOutboundPlanOrder() {
-        if (!mockConfig.isOpenMockCreateOutboundPlanOrder()) {
+        if (!mockConfig.isOpenMockCreateOutboundPlanOrder() || openLoopOrderLoadEngine.isRunning()) {
             return;
         }
 
-        createOutboundPlanOrder();
-    }
-
-    private void createInboundPlanOrder() {
-        List<Map<String, Object>> result = databaseQueryService.querySku();
-        if (result.isEmpty()) {
+        if (mockConfig.isBacklogControlEnabled()) {
+            create(backlogController.acquireOutbound(MAX_IN_FLIGHT - outboundInFlight.get()), outboundInFlight,
+                    orderCreateService::createOutboundPlanOrder);
             return;
         }
 
-        for (Map<String, Object> map : result) {
-            map.put("qtyRestocked", new Random().nextInt(1, 1000));
+        if (!virtualClock.isDue("create-outbound-plan-order", 5_000)) {
+            return;
         }
 
-        String warehouseCode = result.getFirst().get("warehouseCode").toString();
-
-        Map<String, Object> requestBody = Map.of("customerOrderNo", UUID.randomUUID().toString(),
-                "lpnCode", UUID.randomUUID().toString(),
-                "warehouseCode", warehouseCode,
-                "storageType", "STORAGE",
-                "details", result);
-
-        apiService.call("api/execute?apiType=ORDER_INBOUND_CREATE", requestBody);
-
+        orderCreateService.createOutboundPlanOrder().join();
     }
 
-    private void createOutboundPlanOrder() {
-        List<Map<String, Object>> result = databaseQueryService.querySkuBatchStock();
-        if (result.isEmpty()) {
-            return;
-        }
-
-        for (Map<String, Object> map : result) {
-            int availableQty = (int) map.get("available_qty");
-            map.put("qtyRequired", availableQty == 1 ? 1 : new Random().nextInt(1, 100));
+    /**
+     * sends the orders without waiting for WES, at most MAX_IN_FLIGHT per generator
+     */
+    private void create(int orders, AtomicInteger inFlight, Supplier<CompletableFuture<Boolean>> createOrder) {
+        for (int i = 0; i < orders; i++) {
+            inFlight.incrementAndGet();
+            try {
+                createOrder.get().whenComplete((created, throwable) -> inFlight.decrementAndGet());
+            } catch (Exception e) {
+                inFlight.decrementAndGet();
+                log.error("create order error", e);
+            }
         }
-
-        String warehouseCode = result.getFirst().get("warehouseCode").toString();
-
-        Map<String, Object> requestBody = Map.of("customerOrderNo", UUID.randomUUID().toString(),
-                "warehouseCode", warehouseCode,
-                "shortOutbound", true,
-                "details", result);
-
-        apiService.call("api/execute?apiType=ORDER_OUTBOUND_CREATE", requestBody);
     }
-
 }
@@ -3,19 +3,21 @@ package org.openwes.mock.scheduler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.openwes.mock.config.MockConfig;
+import org.openwes.mock.service.AcceptOrderCompletionPipeline;
 import org.openwes.mock.service.ApiService;
+import org.openwes.mock.service.ContainerPoolService;
 import org.openwes.mock.service.DatabaseQueryService;
-import org.openwes.mock.utils.JsonUtils;
-import org.openwes.mock.utils.ThreadUtils;
+import org.openwes.mock.service.SkuIdIndexService;
+import org.openwes.mock.utils.VirtualClock;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.Semaphore;
 
 @Component
 @Slf4j
@@ -25,11 +27,15 @@ public class MockOrderAcceptanceScheduler {
     private final MockConfig mockConfig;
     private final DatabaseQueryService databaseQueryService;
     private final ApiService apiService;
+    private final SkuIdIndexService skuIdIndexService;
+    private final ContainerPoolService containerPoolService;
+    private final AcceptOrderCompletionPipeline acceptOrderCompletionPipeline;
+    private final VirtualClock virtualClock;
 
-    @Scheduled(cron = "0/1 * * * * *")
+    @Scheduled(fixedDelay = VirtualClock.TICK_MILLIS)
     public void scheduleInboundOrderAcceptance() {
 
-        if (!mockConfig.isOpenMockInboundOrderAcceptance()) {
+        if (!mockConfig.isOpenMockInboundOrderAcceptance() || !virtualClock.isDue("inbound-order-acceptance", 1_000)) {
             return;
         }
 
@@ -40,81 +46,72 @@ public class MockOrderAcceptanceScheduler {
         }
     }
 
-    private void processInboundOrderAcceptance() {
+    /**
+     * orders and their first open detail come from one query and sku ids from the in-memory index, the accept
+     * calls then run in parallel with at most inboundAcceptanceConcurrency in flight. the tick waits for them so
+     * the next tick does not read the same orders again while they are still being accepted.
+     */
+    private void processInboundOrderAcceptance() throws InterruptedException {
 
-        List<Map<String, Object>> inboundOrders = databaseQueryService.queryInboundOrders();
+        List<Map<String, Object>> inboundOrders = databaseQueryService.queryInboundOrdersForAcceptance(
+                Math.max(mockConfig.getInboundAcceptanceBatchSize(), 1));
 
         if (inboundOrders.isEmpty()) {
             log.info("No pending inbound orders found for acceptance");
             return;
         }
 
+        Semaphore inFlight = new Semaphore(Math.max(mockConfig.getInboundAcceptanceConcurrency(), 1));
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>(inboundOrders.size());
         for (Map<String, Object> order : inboundOrders) {
-            acceptOrder(order);
+            inFlight.acquire();
+            CompletableFuture<Boolean> future;
+            try {
+                future = acceptOrder(order);
+            } catch (Exception e) {
+                inFlight.release();
+                log.error("Error accepting inbound order {}", order.get("id"), e);
+                continue;
+            }
+            futures.add(future.whenComplete((result, throwable) -> inFlight.release()));
         }
+
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).exceptionally(throwable -> null).join();
     }
 
-    private void acceptOrder(Map<String, Object> order) {
+    private CompletableFuture<Boolean> acceptOrder(Map<String, Object> order) {
         Long orderId = (Long) order.get("id");
         String warehouseCode = (String) order.get("warehouse_code");
 
-
-        List<Map<String, Object>> orderDetails = databaseQueryService.queryInboundOrderDetails(orderId);
-
-        if (orderDetails.isEmpty()) {
-            log.info("No pending details found for order {}", orderId);
-            return;
-        }
-
-        Map<String, Object> detail = orderDetails.getFirst();
-
-        Long detailId = (Long) detail.get("id");
-        String skuCode = (String) detail.get("sku_code");
-        Integer qtyPlanned = (Integer) detail.get("qty_restocked");
-        Integer qtyAccepted = detail.get("qty_accepted") != null ? (Integer) detail.get("qty_accepted") : 0;
-        Integer qtyAbnormal = detail.get("qty_abnormal") != null ? (Integer) detail.get("qty_abnormal") : 0;
+        Long detailId = (Long) order.get("detail_id");
+        String skuCode = (String) order.get("sku_code");
+        Integer qtyPlanned = (Integer) order.get("qty_restocked");
+        Integer qtyAccepted = order.get("qty_accepted") != null ? (Integer) order.get("qty_accepted") : 0;
+        Integer qtyAbnormal = order.get("qty_abnormal") != null ? (Integer) order.get("qty_abnormal") : 0;
 
         Integer remainingDetailQty = qtyPlanned - qtyAccepted - qtyAbnormal;
         if (remainingDetailQty <= 0) {
-            return;
+            return CompletableFuture.completedFuture(false);
         }
 
-        // Query SKU information to get skuId
-        Long skuId;
-        try {
-            skuId = databaseQueryService.querySkuId(skuCode, warehouseCode);
-        } catch (Exception e) {
+        Long skuId = skuIdIndexService.getSkuId(skuCode, warehouseCode);
+        if (skuId == null) {
             log.warn("SKU not found for code: {}, warehouse: {}", skuCode, warehouseCode);
-            return;
+            return CompletableFuture.completedFuture(false);
         }
 
-        List<Map<String, Object>> containers = getRandomContainer();
-        Map<String, Object> containerInfo = null;
-        if (!containers.isEmpty()) {
-            containerInfo = containers.getFirst();
-        }
-
-        if (containerInfo == null) {
+        ContainerPoolService.Reservation reservation = containerPoolService.reserve();
+        if (reservation == null) {
             log.warn("No outside containers available for warehouse: {}, skipping detail {}", warehouseCode, detailId);
-            return;
+            return CompletableFuture.completedFuture(false);
         }
 
-        Long targetContainerId = (Long) containerInfo.get("id");
-        String targetContainerCode = (String) containerInfo.get("container_code");
-        String targetContainerSpecCode = (String) containerInfo.get("container_spec_code");
-
-        // Extract slot information from JSON container_slots
-        String targetContainerSlotCode = null;
-        Object containerSlotsObj = containerInfo.get("container_slots");
-        // Parse JSON array and find first available slot
-        String containerSlotsJson = JsonUtils.obj2String(containerSlotsObj);
-        List<Map> slots = JsonUtils.string2List(containerSlotsJson, Map.class);
-        targetContainerSlotCode = (String) slots.getFirst().get("containerSlotCode");
+        ContainerPoolService.PooledContainer container = reservation.container();
 
         // Use warehouse area and logic IDs as workstation fallback
-        Long workStationId = (Long) containerInfo.get("warehouse_area_id");
+        Long workStationId = container.getWarehouseAreaId();
         if (workStationId == null || workStationId == 0L) {
-            workStationId = (Long) containerInfo.get("warehouse_logic_id");
+            workStationId = container.getWarehouseLogicId();
             if (workStationId == null || workStationId == 0L) {
                 workStationId = 1L; // Default fallback
             }
@@ -128,59 +125,40 @@ public class MockOrderAcceptanceScheduler {
         acceptanceDetail.put("warehouseCode", warehouseCode);
         acceptanceDetail.put("qtyAccepted", remainingDetailQty);
         acceptanceDetail.put("skuId", skuId);
-        acceptanceDetail.put("targetContainerId", targetContainerId);
-        acceptanceDetail.put("targetContainerCode", targetContainerCode);
-        acceptanceDetail.put("targetContainerSpecCode", targetContainerSpecCode);
-        acceptanceDetail.put("targetContainerSlotCode", targetContainerSlotCode);
+        acceptanceDetail.put("targetContainerId", container.getId());
+        acceptanceDetail.put("targetContainerCode", container.getContainerCode());
+        acceptanceDetail.put("targetContainerSpecCode", container.getContainerSpecCode());
+        acceptanceDetail.put("targetContainerSlotCode", reservation.slotCode());
         acceptanceDetail.put("targetContainerFace", targetContainerFace);
         acceptanceDetail.put("workStationId", workStationId);
 
         Map<String, Object> batchAttributes = new HashMap<>();
-        batchAttributes.put("batchNo", "BATCH_" + System.currentTimeMillis());
+        batchAttributes.put("batchNo", "BATCH_" + virtualClock.millis());
         batchAttributes.put("operator", "SYSTEM_SCHEDULER");
         acceptanceDetail.put("batchAttributes", batchAttributes);
 
-        apiService.call("inbound/plan/accept", acceptanceDetail);
-    }
-
-    private List<Map<String, Object>> getRandomContainer() {
-
-        List<Map<String, Object>> containers = databaseQueryService.queryContainers();
-
-        if (containers.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        int randomIndex = ThreadLocalRandom.current().nextInt(containers.size());
-        return Collections.singletonList(containers.get(randomIndex));
+        return apiService.callAsync("inbound/plan/accept", acceptanceDetail)
+                .whenComplete((accepted, throwable) -> {
+                    if (throwable != null || !Boolean.TRUE.equals(accepted)) {
+                        containerPoolService.release(reservation);
+                    }
+                });
     }
 
-    @Scheduled(cron = "0/3 * * * * *")
+    @Scheduled(fixedDelay = VirtualClock.TICK_MILLIS)
     public void scheduleCompleteAcceptOrder() {
 
-        if (!mockConfig.isOpenMockCompleteAcceptOrder()) {
+        if (!mockConfig.isOpenMockCompleteAcceptOrder() || !virtualClock.isDue("complete-accept-order", 500)) {
             return;
         }
 
         try {
-            completeAcceptOrder();
+            acceptOrderCompletionPipeline.drain();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             log.error("Error processing complete accept order", e);
         }
     }
 
-    private void completeAcceptOrder() {
-        List<Map<String, Object>> acceptOrders = databaseQueryService.queryAcceptOrders();
-        if (acceptOrders.isEmpty()) {
-            log.info("No accept orders found");
-            return;
-        }
-
-        for (Map<String, Object> acceptOrder : acceptOrders) {
-            apiService.call("inbound/accept/completeById?acceptOrderId=" + acceptOrder.get("id").toString(), "");
-            ThreadUtils.sleep(50L);
-        }
-
-    }
-
 }
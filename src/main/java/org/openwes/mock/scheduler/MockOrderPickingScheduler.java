@@ -1,38 +1,63 @@
 package org.openwes.mock.scheduler;
 
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.openwes.mock.config.MockConfig;
 import org.openwes.mock.constants.ApiCodeEnum;
 import org.openwes.mock.constants.PutWallSlotStatusEnum;
+import org.openwes.mock.constants.SimulatedActionEnum;
 import org.openwes.mock.constants.WorkStationStatusEnum;
+import org.openwes.mock.dto.PutWallDTO;
+import org.openwes.mock.dto.PutWallSlotDTO;
+import org.openwes.mock.dto.StationActorStatsDTO;
 import org.openwes.mock.dto.WorkStationDTO;
 import org.openwes.mock.dto.WorkStationVO;
+import org.openwes.mock.service.ApiStatsService;
 import org.openwes.mock.service.StationService;
+import org.openwes.mock.service.ThinkTimeService;
+import org.openwes.mock.utils.SimulationTimer;
+import org.openwes.mock.utils.VirtualClock;
+import org.openwes.mock.utils.WorkStationVOReader;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ObjectUtils;
 
-import java.util.List;
-import java.util.Map;
-import java.util.Random;
-import java.util.UUID;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Component
-@Slf4j
 @RequiredArgsConstructor
 public class MockOrderPickingScheduler {
 
+    private static final String STATION_CYCLE_ENDPOINT = "station/cycle";
+    private static final Set<WorkStationVOReader.Part> PICKING_PARTS =
+            Collections.unmodifiableSet(EnumSet.of(WorkStationVOReader.Part.SKU_AREA, WorkStationVOReader.Part.PUT_WALL_AREA));
+
     private final StationService stationService;
     private final MockConfig mockConfig;
+    private final ThinkTimeService thinkTimeService;
     private final Executor workStationExecutor;
+    private final SimulationTimer simulationTimer;
+    private final VirtualClock virtualClock;
+    private final ApiStatsService apiStatsService;
+
+    private final Map<Long, WorkStationActor> actors = new ConcurrentHashMap<>();
 
-    @Scheduled(cron = "0/1 * * * * *")
+    /**
+     * keeps one actor per work station, the actors run their picking rounds on their own.
+     */
+    @Scheduled(fixedDelay = VirtualClock.TICK_MILLIS)
     public void schedulePicking() {
 
+        if (!virtualClock.isDue("picking", 1_000)) {
+            return;
+        }
+
         if (!mockConfig.isOpenMockPicking()) {
+            stopActors(actors.keySet());
             return;
         }
 
@@ -40,64 +65,110 @@ public class MockOrderPickingScheduler {
 
         if (ObjectUtils.isEmpty(workStations)
                 || workStations.stream().noneMatch(v -> v.getWorkStationStatus() != WorkStationStatusEnum.OFFLINE)) {
+            stopActors(actors.keySet());
             return;
         }
 
-        workStations.forEach(workStationDTO -> {
+        Set<Long> workStationIds = workStations.stream().map(WorkStationDTO::getId).collect(Collectors.toSet());
+        workStationIds.forEach(workStationId -> actors.computeIfAbsent(workStationId, id -> {
+            WorkStationActor actor = new WorkStationActor(id, this::pickingRound,
+                    () -> thinkTimeService.sampleMillis(SimulatedActionEnum.PICKING_ROUND), workStationExecutor, simulationTimer,
+                    apiStatsService.recorder(STATION_CYCLE_ENDPOINT));
+            actor.start();
+            return actor;
+        }));
 
-            CompletableFuture.runAsync(() -> {
+        stopActors(actors.keySet().stream().filter(id -> !workStationIds.contains(id)).toList());
+    }
 
-                WorkStationVO workStation = stationService.getWorkStationVO(workStationDTO.getId());
+    private void stopActors(Collection<Long> workStationIds) {
+        List.copyOf(workStationIds).forEach(workStationId -> {
+            WorkStationActor actor = actors.remove(workStationId);
+            if (actor != null) {
+                actor.stop();
+            }
+        });
+    }
 
-                execute(workStation);
-                scanBarcode(workStation);
+    public List<StationActorStatsDTO> getActorStats() {
+        return actors.values().stream()
+                .map(WorkStationActor::snapshot)
+                .sorted(Comparator.comparing(StationActorStatsDTO::getWorkStationId))
+                .toList();
+    }
 
-            }, workStationExecutor).exceptionally(throwable -> {
-                log.error("schedulePicking error", throwable);
-                return null;
-            });
-        });
+    /**
+     * the handling time of a scanned barcode is not slept here, the actor waits it on the timer before the next round
+     */
+    private WorkStationActor.RoundResult pickingRound(Long workStationId) {
+        WorkStationVO workStation = stationService.getWorkStationVO(workStationId, PICKING_PARTS);
+        if (workStation == null) {
+            return WorkStationActor.RoundResult.EMPTY;
+        }
 
+        int actions = execute(workStation);
+        if (!scanBarcode(workStation)) {
+            return new WorkStationActor.RoundResult(actions, 0);
+        }
+        return new WorkStationActor.RoundResult(actions + 1, thinkTimeService.sampleMillis(SimulatedActionEnum.SCAN_BARCODE));
     }
 
-    private void scanBarcode(WorkStationVO workStation) {
+    private boolean scanBarcode(WorkStationVO workStation) {
         String skuCode = getPickingSkuCode(workStation);
         if (ObjectUtils.isEmpty(skuCode)) {
-            return;
+            return false;
         }
         stationService.execute(workStation.getWorkStationId(), ApiCodeEnum.SCAN_BARCODE, skuCode);
-        sleep(new Random().nextInt(10, 50));
+        return true;
     }
 
-    private void execute(WorkStationVO workStation) {
-        workStation.getPutWallArea().getPutWallViews()
-                .forEach(putWallView -> {
-                    putWallView.getPutWallSlots().forEach(putWallSlotDTO -> {
-
-                        if (putWallSlotDTO.getPutWallSlotStatus() == PutWallSlotStatusEnum.WAITING_BINDING) {
-
-                            //bind container
-                            stationService.execute(workStation.getWorkStationId(), ApiCodeEnum.INPUT, putWallSlotDTO.getPutWallSlotCode());
-                            stationService.execute(workStation.getWorkStationId(), ApiCodeEnum.INPUT, UUID.randomUUID());
-
-                        } else if (putWallSlotDTO.getPutWallSlotStatus() == PutWallSlotStatusEnum.DISPATCH) {
-                            stationService.execute(workStation.getWorkStationId(), ApiCodeEnum.TAP_PUT_WALL_SLOT,
-                                    Map.of("putWallSlotCode", putWallSlotDTO.getPutWallSlotCode()));
-                        } else if (putWallSlotDTO.getPutWallSlotStatus() == PutWallSlotStatusEnum.WAITING_SEAL) {
-                            stationService.execute(workStation.getWorkStationId(), ApiCodeEnum.TAP_PUT_WALL_SLOT,
-                                    Map.of("putWallSlotCode", putWallSlotDTO.getPutWallSlotCode()));
-                        }
-                    });
-                });
+    /**
+     * sends the put wall slot actions of the station. the scan state of a station is shared by its slots, so the
+     * slot and container INPUT of every slot waiting for binding go one slot after another in a single chain,
+     * only the taps of the other slots run in parallel to it up to stationActionParallelism
+     */
+    private int execute(WorkStationVO workStation) {
+        if (workStation.getPutWallArea() == null || workStation.getPutWallArea().getPutWallViews() == null) {
+            return 0;
+        }
+
+        Long workStationId = workStation.getWorkStationId();
+        List<Supplier<CompletableFuture<Integer>>> bindings = new ArrayList<>();
+        List<Supplier<CompletableFuture<Integer>>> chains = new ArrayList<>();
+        for (PutWallDTO putWallView : workStation.getPutWallArea().getPutWallViews()) {
+            for (PutWallSlotDTO putWallSlotDTO : putWallView.getPutWallSlots()) {
+                String putWallSlotCode = putWallSlotDTO.getPutWallSlotCode();
+
+                if (putWallSlotDTO.getPutWallSlotStatus() == PutWallSlotStatusEnum.WAITING_BINDING) {
+
+                    //bind container
+                    bindings.add(() -> stationService.executeAsync(workStationId, ApiCodeEnum.INPUT, putWallSlotCode)
+                            .handle((bound, throwable) -> bound)
+                            .thenCompose(bound -> stationService.executeAsync(workStationId, ApiCodeEnum.INPUT, UUID.randomUUID()))
+                            .thenApply(v -> 2));
+
+                } else if (putWallSlotDTO.getPutWallSlotStatus() == PutWallSlotStatusEnum.DISPATCH
+                        || putWallSlotDTO.getPutWallSlotStatus() == PutWallSlotStatusEnum.WAITING_SEAL) {
+                    chains.add(() -> stationService.executeAsync(workStationId, ApiCodeEnum.TAP_PUT_WALL_SLOT,
+                            Map.of("putWallSlotCode", putWallSlotCode)).thenApply(v -> 1));
+                }
+            }
+        }
+
+        if (!bindings.isEmpty()) {
+            chains.addFirst(() -> inSequence(bindings));
+        }
+        return SlotActionPipeline.run(chains, mockConfig.getStationActionParallelism()).join();
     }
 
-    private void sleep(int sleepTimeMillis) {
-        try {
-            Thread.sleep(sleepTimeMillis);
-        } catch (InterruptedException e) {
-            log.error("sleep interrupt", e);
-            Thread.currentThread().interrupt();
+    private static CompletableFuture<Integer> inSequence(List<Supplier<CompletableFuture<Integer>>> bindings) {
+        CompletableFuture<Integer> sequence = CompletableFuture.completedFuture(0);
+        for (Supplier<CompletableFuture<Integer>> binding : bindings) {
+            sequence = sequence.thenCompose(sent -> binding.get()
+                    .exceptionally(throwable -> 0)
+                    .thenApply(bindingSent -> sent + bindingSent));
         }
+        return sequence;
     }
 
     private String getPickingSkuCode(WorkStationVO workStation) {
@@ -0,0 +1,234 @@
+package org.openwes.mock.scheduler;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.openwes.mock.constants.LoadPhaseTypeEnum;
+import org.openwes.mock.controller.parameter.LoadProfileDTO;
+import org.openwes.mock.dto.LoadEngineStatusDTO;
+import org.openwes.mock.service.ApiStatsService;
+import org.openwes.mock.service.OrderCreateService;
+import org.openwes.mock.utils.LatencyRecorder;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * open-loop order generator with a constant arrival rate per phase.
+ * <p>
+ * a single driver thread walks the schedule in 1 ms steps and hands every arrival to the order load executor
+ * at its intended time, it never waits for WES. when WES or the executor falls behind the arrivals are still
+ * issued, only later, and the latency is measured from the intended time, so slow responses are not hidden
+ * by sending less load (coordinated omission).
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class OpenLoopOrderLoadEngine {
+
+    private static final long STEP_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final double STEP_SECONDS = STEP_NANOS / 1_000_000_000D;
+
+    private final OrderCreateService orderCreateService;
+    private final ApiStatsService apiStatsService;
+    private final Executor orderLoadExecutor;
+
+    private volatile LoadRun loadRun;
+
+    public synchronized void start(LoadProfileDTO profile) {
+        stop();
+
+        LoadRun run = new LoadRun(profile);
+        loadRun = run;
+        run.start();
+        log.info("open-loop load engine started: {}", profile);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        LoadRun run = loadRun;
+        if (run == null) {
+            return;
+        }
+        run.stop();
+        loadRun = null;
+        log.info("open-loop load engine stopped");
+    }
+
+    public boolean isRunning() {
+        return loadRun != null;
+    }
+
+    public LoadEngineStatusDTO status() {
+        LoadRun run = loadRun;
+        if (run == null) {
+            return LoadEngineStatusDTO.builder().running(false).build();
+        }
+        return run.status();
+    }
+
+    private class LoadRun {
+
+        private final LoadProfileDTO profile;
+        private final List<LoadProfileDTO.LoadPhaseDTO> phases;
+        private final ArrivalStream inbound;
+        private final ArrivalStream outbound;
+        private final Thread driver;
+        private volatile boolean running = true;
+        private long startNanos;
+
+        LoadRun(LoadProfileDTO profile) {
+            this.profile = profile;
+            this.phases = List.copyOf(profile.getPhases());
+            this.inbound = new ArrivalStream("ORDER_INBOUND_CREATE", profile.getInboundOrdersPerSecond(),
+                    orderCreateService::createInboundPlanOrder);
+            this.outbound = new ArrivalStream("ORDER_OUTBOUND_CREATE", profile.getOutboundOrdersPerSecond(),
+                    orderCreateService::createOutboundPlanOrder);
+            this.driver = new Thread(this::drive, "open-loop-driver");
+            this.driver.setDaemon(true);
+        }
+
+        void start() {
+            startNanos = System.nanoTime();
+            driver.start();
+        }
+
+        void stop() {
+            running = false;
+            LockSupport.unpark(driver);
+        }
+
+        private void drive() {
+            long cursor = startNanos;
+            while (running) {
+                long now = System.nanoTime();
+                while (running && cursor + STEP_NANOS <= now) {
+                    cursor += STEP_NANOS;
+                    double factor = factorAt(elapsedSeconds(cursor));
+                    inbound.advance(cursor, factor);
+                    outbound.advance(cursor, factor);
+                }
+                LockSupport.parkNanos(STEP_NANOS);
+            }
+        }
+
+        private double elapsedSeconds(long nanos) {
+            return (nanos - startNanos) / 1_000_000_000D;
+        }
+
+        /**
+         * the factor starts at 0 so that a leading ramp up starts from no load, without phases it is 1.
+         */
+        private double factorAt(double elapsedSeconds) {
+            double heldFactor = phases.isEmpty() ? 1 : 0;
+            double phaseStart = 0;
+            for (LoadProfileDTO.LoadPhaseDTO phase : phases) {
+                double phaseEnd = phaseStart + phase.getDurationSeconds();
+                if (elapsedSeconds < phaseEnd) {
+                    if (phase.getPhaseType() == LoadPhaseTypeEnum.RAMP_UP) {
+                        double progress = (elapsedSeconds - phaseStart) / phase.getDurationSeconds();
+                        return heldFactor + (phase.getRateFactor() - heldFactor) * progress;
+                    }
+                    return phase.getRateFactor();
+                }
+                if (phase.getPhaseType() != LoadPhaseTypeEnum.SPIKE) {
+                    heldFactor = phase.getRateFactor();
+                }
+                phaseStart = phaseEnd;
+            }
+            return heldFactor;
+        }
+
+        private LoadPhaseTypeEnum phaseAt(double elapsedSeconds) {
+            double phaseStart = 0;
+            for (LoadProfileDTO.LoadPhaseDTO phase : phases) {
+                phaseStart += phase.getDurationSeconds();
+                if (elapsedSeconds < phaseStart) {
+                    return phase.getPhaseType();
+                }
+            }
+            return null;
+        }
+
+        LoadEngineStatusDTO status() {
+            double elapsedSeconds = elapsedSeconds(System.nanoTime());
+            double factor = factorAt(elapsedSeconds);
+            return LoadEngineStatusDTO.builder()
+                    .running(running)
+                    .elapsedSeconds(elapsedSeconds)
+                    .currentPhase(phaseAt(elapsedSeconds))
+                    .rateFactor(factor)
+                    .inboundTargetPerSecond(profile.getInboundOrdersPerSecond() * factor)
+                    .outboundTargetPerSecond(profile.getOutboundOrdersPerSecond() * factor)
+                    .inboundSent(inbound.sent.sum())
+                    .outboundSent(outbound.sent.sum())
+                    .inboundRejected(inbound.rejected.sum())
+                    .outboundRejected(outbound.rejected.sum())
+                    .build();
+        }
+    }
+
+    private class ArrivalStream {
+
+        private final double ordersPerSecond;
+        private final Supplier<CompletableFuture<Boolean>> creator;
+        private final LatencyRecorder startLag;
+        private final LatencyRecorder correctedLatency;
+        private final LongAdder sent = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        /**
+         * fractional arrivals carried over between steps, only touched by the driver thread
+         */
+        private double credit;
+
+        ArrivalStream(String apiType, double ordersPerSecond, Supplier<CompletableFuture<Boolean>> creator) {
+            this.ordersPerSecond = ordersPerSecond;
+            this.creator = creator;
+            this.startLag = apiStatsService.recorder("open-loop/" + apiType + "/start-lag");
+            this.correctedLatency = apiStatsService.recorder("open-loop/" + apiType + "/corrected-latency");
+            this.startLag.reset();
+            this.correctedLatency.reset();
+        }
+
+        void advance(long stepNanos, double factor) {
+            credit += ordersPerSecond * factor * STEP_SECONDS;
+            while (credit >= 1) {
+                credit -= 1;
+                dispatch(stepNanos);
+            }
+        }
+
+        private void dispatch(long intendedNanos) {
+            try {
+                orderLoadExecutor.execute(() -> send(intendedNanos));
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                correctedLatency.record(System.nanoTime() - intendedNanos, false);
+            }
+        }
+
+        private void send(long intendedNanos) {
+            startLag.record(System.nanoTime() - intendedNanos, true);
+            sent.increment();
+
+            CompletableFuture<Boolean> future;
+            try {
+                future = creator.get();
+            } catch (Exception e) {
+                log.error("open-loop order creation error", e);
+                correctedLatency.record(System.nanoTime() - intendedNanos, false);
+                return;
+            }
+            future.whenComplete((success, throwable) ->
+                    correctedLatency.record(System.nanoTime() - intendedNanos, throwable == null && Boolean.TRUE.equals(success)));
+        }
+    }
+}
@@ -0,0 +1,488 @@
+package org.openwes.mock.scheduler;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.openwes.mock.config.MockConfig;
+import org.openwes.mock.dto.ContainerTaskDTO;
+import org.openwes.mock.dto.RobotFleetStatsDTO;
+import org.openwes.mock.utils.VirtualClock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * discrete-event simulation of the robot fleet that carries containers on a grid.
+ * <p>
+ * a mission takes the nearest idle robot to the pickup cell, the robot travels there, lifts the container,
+ * travels to the destination cell and stays there until the mission is released, e.g. once the station took
+ * the container. travel takes the manhattan distance divided by the robot speed plus a handling time.
+ * <p>
+ * one event loop thread owns all robot state in primitive arrays and a heap of the next event of every robot,
+ * so thousands of robots cost a few array slots each and no thread. missions and releases are passed to it
+ * through a queue, arrival callbacks are handed over to the callback executor. all times are virtual.
+ * <p>
+ * idle robots are indexed by grid buckets of BUCKET_CELLS x BUCKET_CELLS cells, the nearest one is searched in
+ * rings of buckets around the pickup and the search stops once no farther ring can hold a closer robot, so an
+ * assignment looks at a few buckets instead of the whole fleet.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RobotFleetSimulator {
+
+    private static final String ROBOT_CODE_PREFIX = "robot_";
+
+    private static final byte IDLE = 0;
+    private static final byte TO_PICKUP = 1;
+    private static final byte TO_DESTINATION = 2;
+    private static final byte AT_DESTINATION = 3;
+    private static final byte RETIRED = 4;
+
+    private static final int BUCKET_CELLS = 8;
+    private static final int MAX_SCAN_PER_BUCKET = 32;
+    private static final int NONE = -1;
+
+    private final MockConfig mockConfig;
+    private final VirtualClock virtualClock;
+
+    @Value("${mock.robot-fleet.grid-width:100}")
+    private int gridWidth;
+
+    @Value("${mock.robot-fleet.grid-height:100}")
+    private int gridHeight;
+
+    private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    private volatile Thread eventLoop;
+    private volatile boolean running;
+
+    // robot state, only touched by the event loop
+    private int robots;
+    private int[] x = new int[0];
+    private int[] y = new int[0];
+    private byte[] state = new byte[0];
+    private Mission[] missions = new Mission[0];
+    private final EventHeap events = new EventHeap();
+    private int bucketColumns;
+    private int bucketRows;
+    private int[] bucketHeads = new int[0];
+    private int[] idleBucket = new int[0];
+    private int[] idleNext = new int[0];
+    private int[] idlePrev = new int[0];
+    private int idleCount;
+    private int nearestRobot;
+    private int nearestDistance;
+    private final ArrayDeque<Mission> waitingMissions = new ArrayDeque<>();
+    private int travelling;
+    private int atDestination;
+
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder arrived = new LongAdder();
+    private final LongAdder released = new LongAdder();
+    private final LongAdder travelMillis = new LongAdder();
+    private final LongAdder waitMillis = new LongAdder();
+    private volatile int fleetSize;
+    private volatile int idleRobots;
+    private volatile int travellingRobots;
+    private volatile int robotsAtDestination;
+    private volatile int waitingMissionCount;
+
+    @PostConstruct
+    public void start() {
+        bucketColumns = (gridWidth + BUCKET_CELLS - 1) / BUCKET_CELLS;
+        bucketRows = (gridHeight + BUCKET_CELLS - 1) / BUCKET_CELLS;
+        bucketHeads = new int[bucketColumns * bucketRows];
+        Arrays.fill(bucketHeads, NONE);
+        running = true;
+        eventLoop = Thread.ofPlatform().name("robot-fleet").daemon().start(this::run);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        LockSupport.unpark(eventLoop);
+    }
+
+    /**
+     * cell of a station or storage location without a position, spread over the grid by the hash of its key
+     */
+    public int[] cellOf(Object key) {
+        int hash = key == null ? 0 : key.hashCode() * 0x9e3779b9;
+        return new int[]{Math.floorMod(hash, gridWidth), Math.floorMod(hash >>> 16, gridHeight)};
+    }
+
+    /**
+     * @param onArrival gets the task with its robot code once the robot reached the destination, the robot
+     *                  waits there until release is called with that code
+     */
+    public void dispatch(ContainerTaskDTO task, int[] pickup, int[] destination, Consumer<ContainerTaskDTO> onArrival,
+                         Executor callbackExecutor) {
+        dispatched.increment();
+        Mission mission = new Mission(task, clampX(pickup[0]), clampY(pickup[1]), clampX(destination[0]),
+                clampY(destination[1]), onArrival, callbackExecutor, virtualClock.millis());
+        submit(() -> waitingMissions.add(mission));
+    }
+
+    public void release(String robotCode) {
+        if (robotCode == null || !robotCode.startsWith(ROBOT_CODE_PREFIX)) {
+            return;
+        }
+        int robot = Integer.parseInt(robotCode.substring(ROBOT_CODE_PREFIX.length())) - 1;
+        submit(() -> releaseRobot(robot));
+    }
+
+    private void submit(Runnable command) {
+        commands.offer(command);
+        LockSupport.unpark(eventLoop);
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                resize(Math.max(mockConfig.getRobotFleetSize(), 0));
+
+                Runnable command;
+                while ((command = commands.poll()) != null) {
+                    command.run();
+                }
+
+                long now = virtualClock.millis();
+                while (!events.isEmpty() && events.peekTime() <= now) {
+                    int robot = events.poll();
+                    onEvent(robot, now);
+                }
+                assignWaitingMissions(now);
+                publishCounts();
+
+                long sleepMillis = events.isEmpty() ? 1000 : Math.min(events.peekTime() - now, 1000);
+                if (sleepMillis > 0 && commands.isEmpty()) {
+                    LockSupport.parkNanos(this, virtualClock.toWallNanos(TimeUnit.MILLISECONDS.toNanos(sleepMillis)));
+                }
+            } catch (Exception e) {
+                log.error("robot fleet event loop error", e);
+            }
+        }
+    }
+
+    private void onEvent(int robot, long now) {
+        Mission mission = missions[robot];
+        if (state[robot] == TO_PICKUP) {
+            x[robot] = mission.pickupX;
+            y[robot] = mission.pickupY;
+            state[robot] = TO_DESTINATION;
+            events.add(robot, now + travelMillis(robot, mission.destinationX, mission.destinationY));
+        } else if (state[robot] == TO_DESTINATION) {
+            x[robot] = mission.destinationX;
+            y[robot] = mission.destinationY;
+            state[robot] = AT_DESTINATION;
+            travelling--;
+            atDestination++;
+            arrived.increment();
+            travelMillis.add(now - mission.assignedAtMillis);
+
+            ContainerTaskDTO task = mission.task;
+            task.setRobotCode(ROBOT_CODE_PREFIX + (robot + 1));
+            mission.callbackExecutor.execute(() -> mission.onArrival.accept(task));
+        }
+    }
+
+    private void releaseRobot(int robot) {
+        if (robot < 0 || robot >= robots || state[robot] != AT_DESTINATION) {
+            return;
+        }
+        missions[robot] = null;
+        atDestination--;
+        released.increment();
+        if (robot >= fleetSize) {
+            state[robot] = RETIRED;
+            return;
+        }
+        state[robot] = IDLE;
+        addIdle(robot);
+    }
+
+    private void assignWaitingMissions(long now) {
+        if (fleetSize == 0) {
+            handOverWaitingMissions();
+            return;
+        }
+        while (idleCount > 0 && !waitingMissions.isEmpty()) {
+            Mission mission = waitingMissions.poll();
+            int robot = takeNearestIdle(mission.pickupX, mission.pickupY);
+            mission.assignedAtMillis = now;
+            waitMillis.add(now - mission.dispatchedAtMillis);
+            missions[robot] = mission;
+            state[robot] = TO_PICKUP;
+            travelling++;
+            events.add(robot, now + travelMillis(robot, mission.pickupX, mission.pickupY));
+        }
+    }
+
+    /**
+     * without a fleet the waiting missions arrive at once and without a robot, like the direct path
+     */
+    private void handOverWaitingMissions() {
+        Mission mission;
+        while ((mission = waitingMissions.poll()) != null) {
+            Mission handedOver = mission;
+            handedOver.callbackExecutor.execute(() -> handedOver.onArrival.accept(handedOver.task));
+        }
+    }
+
+    private int takeNearestIdle(int targetX, int targetY) {
+        int bucketX = targetX / BUCKET_CELLS;
+        int bucketY = targetY / BUCKET_CELLS;
+        nearestRobot = NONE;
+        nearestDistance = Integer.MAX_VALUE;
+
+        int maxRing = Math.max(bucketColumns, bucketRows);
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // a cell in ring r is at least (r - 1) * BUCKET_CELLS + 1 cells away from the target
+            if (nearestRobot != NONE && nearestDistance <= (ring - 1) * BUCKET_CELLS + 1) {
+                break;
+            }
+            for (int bx = bucketX - ring; bx <= bucketX + ring; bx++) {
+                scanBucket(bx, bucketY - ring, targetX, targetY);
+                if (ring > 0) {
+                    scanBucket(bx, bucketY + ring, targetX, targetY);
+                }
+            }
+            for (int by = bucketY - ring + 1; by < bucketY + ring; by++) {
+                scanBucket(bucketX - ring, by, targetX, targetY);
+                scanBucket(bucketX + ring, by, targetX, targetY);
+            }
+        }
+
+        removeIdle(nearestRobot);
+        return nearestRobot;
+    }
+
+    /**
+     * robots parked at a station share a bucket, only the first few of a bucket are compared
+     */
+    private void scanBucket(int bucketX, int bucketY, int targetX, int targetY) {
+        if (bucketX < 0 || bucketX >= bucketColumns || bucketY < 0 || bucketY >= bucketRows) {
+            return;
+        }
+        int robot = bucketHeads[bucketY * bucketColumns + bucketX];
+        for (int scanned = 0; robot != NONE && scanned < MAX_SCAN_PER_BUCKET; scanned++) {
+            int distance = Math.abs(x[robot] - targetX) + Math.abs(y[robot] - targetY);
+            if (distance < nearestDistance) {
+                nearestRobot = robot;
+                nearestDistance = distance;
+            }
+            robot = idleNext[robot];
+        }
+    }
+
+    private void addIdle(int robot) {
+        int bucket = (y[robot] / BUCKET_CELLS) * bucketColumns + x[robot] / BUCKET_CELLS;
+        int head = bucketHeads[bucket];
+        idleBucket[robot] = bucket;
+        idlePrev[robot] = NONE;
+        idleNext[robot] = head;
+        if (head != NONE) {
+            idlePrev[head] = robot;
+        }
+        bucketHeads[bucket] = robot;
+        idleCount++;
+    }
+
+    private void removeIdle(int robot) {
+        int prev = idlePrev[robot];
+        int next = idleNext[robot];
+        if (prev != NONE) {
+            idleNext[prev] = next;
+        } else {
+            bucketHeads[idleBucket[robot]] = next;
+        }
+        if (next != NONE) {
+            idlePrev[next] = prev;
+        }
+        idleCount--;
+    }
+
+    /**
+     * travel from the current cell of the robot plus the time to lift or drop the container
+     */
+    private long travelMillis(int robot, int targetX, int targetY) {
+        int distance = Math.abs(x[robot] - targetX) + Math.abs(y[robot] - targetY);
+        double speed = Math.max(mockConfig.getRobotSpeedCellsPerSecond(), 0.01);
+        return Math.round(distance * 1000 / speed) + Math.max(mockConfig.getRobotHandlingMillis(), 0);
+    }
+
+    /**
+     * grows the fleet with idle robots on random cells, a shrinking fleet retires idle robots at once and
+     * busy ones when they are released. a fleet shrunk to nothing hands its waiting missions over at once
+     */
+    private void resize(int size) {
+        if (size == fleetSize) {
+            return;
+        }
+        if (size > robots) {
+            x = Arrays.copyOf(x, size);
+            y = Arrays.copyOf(y, size);
+            state = Arrays.copyOf(state, size);
+            missions = Arrays.copyOf(missions, size);
+            idleBucket = Arrays.copyOf(idleBucket, size);
+            idleNext = Arrays.copyOf(idleNext, size);
+            idlePrev = Arrays.copyOf(idlePrev, size);
+            events.ensureCapacity(size);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int robot = robots; robot < size; robot++) {
+                x[robot] = random.nextInt(gridWidth);
+                y[robot] = random.nextInt(gridHeight);
+                state[robot] = RETIRED;
+            }
+            robots = size;
+        }
+
+        fleetSize = size;
+        idleCount = 0;
+        Arrays.fill(bucketHeads, NONE);
+        for (int robot = 0; robot < robots; robot++) {
+            if (state[robot] == IDLE || state[robot] == RETIRED) {
+                state[robot] = robot < size ? IDLE : RETIRED;
+                if (robot < size) {
+                    addIdle(robot);
+                }
+            }
+        }
+        if (size == 0) {
+            handOverWaitingMissions();
+        }
+        log.info("robot fleet resized to {} robots", size);
+    }
+
+    private void publishCounts() {
+        idleRobots = idleCount;
+        travellingRobots = travelling;
+        robotsAtDestination = atDestination;
+        waitingMissionCount = waitingMissions.size();
+    }
+
+    private int clampX(int value) {
+        return Math.min(Math.max(value, 0), gridWidth - 1);
+    }
+
+    private int clampY(int value) {
+        return Math.min(Math.max(value, 0), gridHeight - 1);
+    }
+
+    public RobotFleetStatsDTO stats() {
+        long arrivedCount = arrived.sum();
+        return RobotFleetStatsDTO.builder()
+                .robots(fleetSize)
+                .idle(idleRobots)
+                .travelling(travellingRobots)
+                .atDestination(robotsAtDestination)
+                .waitingMissions(waitingMissionCount)
+                .dispatched(dispatched.sum())
+                .arrived(arrivedCount)
+                .released(released.sum())
+                .avgTravelMillis(arrivedCount == 0 ? 0 : travelMillis.sum() / arrivedCount)
+                .avgWaitForRobotMillis(arrivedCount == 0 ? 0 : waitMillis.sum() / arrivedCount)
+                .build();
+    }
+
+    private static class Mission {
+
+        private final ContainerTaskDTO task;
+        private final int pickupX;
+        private final int pickupY;
+        private final int destinationX;
+        private final int destinationY;
+        private final Consumer<ContainerTaskDTO> onArrival;
+        private final Executor callbackExecutor;
+        private final long dispatchedAtMillis;
+        private long assignedAtMillis;
+
+        Mission(ContainerTaskDTO task, int pickupX, int pickupY, int destinationX, int destinationY,
+                Consumer<ContainerTaskDTO> onArrival, Executor callbackExecutor, long dispatchedAtMillis) {
+            this.task = task;
+            this.pickupX = pickupX;
+            this.pickupY = pickupY;
+            this.destinationX = destinationX;
+            this.destinationY = destinationY;
+            this.onArrival = onArrival;
+            this.callbackExecutor = callbackExecutor;
+            this.dispatchedAtMillis = dispatchedAtMillis;
+        }
+    }
+
+    /**
+     * binary min-heap of robots by the time of their next event, a robot has at most one event
+     */
+    private static final class EventHeap {
+
+        private int[] heap = new int[16];
+        private long[] times = new long[16];
+        private int size;
+
+        void ensureCapacity(int capacity) {
+            if (capacity > heap.length) {
+                heap = Arrays.copyOf(heap, capacity);
+                times = Arrays.copyOf(times, capacity);
+            }
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        long peekTime() {
+            return times[0];
+        }
+
+        void add(int robot, long time) {
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (times[parent] <= time) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                times[i] = times[parent];
+                i = parent;
+            }
+            heap[i] = robot;
+            times[i] = time;
+        }
+
+        int poll() {
+            int robot = heap[0];
+            int lastRobot = heap[--size];
+            long lastTime = times[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && times[child + 1] < times[child]) {
+                    child++;
+                }
+                if (times[child] >= lastTime) {
+                    break;
+                }
+                heap[i] = heap[child];
+                times[i] = times[child];
+                i = child;
+            }
+            heap[i] = lastRobot;
+            times[i] = lastTime;
+            return robot;
+        }
+    }
+}
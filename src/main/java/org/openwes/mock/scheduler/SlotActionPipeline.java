@@ -0,0 +1,74 @@
+package org.openwes.mock.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * runs the put wall slot action chains of one station round with at most parallelism chains in flight.
+ * <p>
+ * a chain holds the actions of one slot and sends them in order, chains of different slots are independent.
+ * a finished chain starts the next waiting one from its completion, so no thread waits for a free lane.
+ */
+@Slf4j
+public class SlotActionPipeline {
+
+    private final List<Supplier<CompletableFuture<Integer>>> chains;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicInteger remaining;
+    private final AtomicInteger actions = new AtomicInteger();
+    private final CompletableFuture<Integer> result = new CompletableFuture<>();
+
+    private SlotActionPipeline(List<Supplier<CompletableFuture<Integer>>> chains) {
+        this.chains = chains;
+        this.remaining = new AtomicInteger(chains.size());
+    }
+
+    /**
+     * @param chains each returns the number of actions it sent once its last action is answered
+     * @return the number of actions sent by all chains
+     */
+    public static CompletableFuture<Integer> run(List<Supplier<CompletableFuture<Integer>>> chains, int parallelism) {
+        if (chains.isEmpty()) {
+            return CompletableFuture.completedFuture(0);
+        }
+
+        SlotActionPipeline pipeline = new SlotActionPipeline(chains);
+        for (int i = 0; i < Math.min(Math.max(parallelism, 1), chains.size()); i++) {
+            pipeline.startNext();
+        }
+        return pipeline.result;
+    }
+
+    private void startNext() {
+        int index = next.getAndIncrement();
+        if (index >= chains.size()) {
+            return;
+        }
+
+        CompletableFuture<Integer> chain;
+        try {
+            chain = chains.get(index).get();
+        } catch (Exception e) {
+            log.error("put wall slot action error", e);
+            chain = CompletableFuture.completedFuture(0);
+        }
+
+        chain.whenComplete((sent, throwable) -> {
+            if (throwable != null) {
+                log.debug("put wall slot action failed", throwable);
+            } else if (sent != null) {
+                actions.addAndGet(sent);
+            }
+
+            if (remaining.decrementAndGet() == 0) {
+                result.complete(actions.get());
+            } else {
+                startNext();
+            }
+        });
+    }
+}
@@ -0,0 +1,120 @@
+package org.openwes.mock.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openwes.mock.dto.ContainerTaskDTO;
+import org.openwes.mock.utils.SimulationTimer;
+import org.openwes.mock.utils.VirtualClock;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * the container arrivals of one work station.
+ * <p>
+ * a lane delivers its containers one by one in task order, with an interval between two arrivals. when the
+ * station can not take a container the lane pauses until the retry time, lanes of other stations keep going.
+ */
+@Slf4j
+public class StationArrivalLane {
+
+    private final Long workStationId;
+    private final Predicate<ContainerTaskDTO> deliver;
+    private final Consumer<ContainerTaskDTO> discard;
+    private final LongSupplier intervalMillis;
+    private final long retryMillis;
+    private final Executor executor;
+    private final SimulationTimer timer;
+    private final VirtualClock clock;
+
+    private final Queue<ContainerTaskDTO> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile long retryAtMillis;
+
+    /**
+     * @param deliver sends the arrival of the task and returns false when the station can not take it now
+     * @param discard gives a task back that the lane does not deliver anymore
+     * @param intervalMillis sampled after every delivered task for the wait before the next one
+     */
+    public StationArrivalLane(Long workStationId, Predicate<ContainerTaskDTO> deliver, Consumer<ContainerTaskDTO> discard,
+                              LongSupplier intervalMillis, long retryMillis, Executor executor, SimulationTimer timer,
+                              VirtualClock clock) {
+        this.workStationId = workStationId;
+        this.deliver = deliver;
+        this.discard = discard;
+        this.intervalMillis = intervalMillis;
+        this.retryMillis = retryMillis;
+        this.executor = executor;
+        this.timer = timer;
+        this.clock = clock;
+    }
+
+    public void add(ContainerTaskDTO task) {
+        tasks.offer(task);
+    }
+
+    public int size() {
+        return tasks.size();
+    }
+
+    /**
+     * starts draining unless the lane is already draining, waiting for its retry time or empty
+     */
+    public void kick() {
+        if (tasks.isEmpty() || clock.millis() < retryAtMillis || !running.compareAndSet(false, true)) {
+            return;
+        }
+        submit();
+    }
+
+    private void submit() {
+        try {
+            executor.execute(this::step);
+        } catch (RejectedExecutionException e) {
+            log.warn("work station {} arrival lane rejected, retry later", workStationId);
+            retryAtMillis = clock.millis() + retryMillis;
+            running.set(false);
+        }
+    }
+
+    private void step() {
+        ContainerTaskDTO task = tasks.peek();
+        if (task == null) {
+            running.set(false);
+            return;
+        }
+
+        boolean delivered;
+        try {
+            delivered = deliver.test(task);
+        } catch (Exception e) {
+            log.error("work station {} container arrival error", workStationId, e);
+            delivered = false;
+        }
+
+        if (!delivered) {
+            retryAtMillis = clock.millis() + retryMillis;
+            running.set(false);
+            return;
+        }
+
+        tasks.poll();
+        timer.schedule(this::submit, intervalMillis.getAsLong(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * hands all queued tasks back, used when the lane is dropped
+     */
+    public void clear() {
+        ContainerTaskDTO task;
+        while ((task = tasks.poll()) != null) {
+            discard.accept(task);
+        }
+    }
+}
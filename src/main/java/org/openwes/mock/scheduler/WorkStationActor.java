@@ -0,0 +1,166 @@
+package org.openwes.mock.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openwes.mock.dto.StationActorStatsDTO;
+import org.openwes.mock.utils.LatencyRecorder;
+import org.openwes.mock.utils.SimulationTimer;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * a simulated work station modelled as an actor with its own mailbox.
+ * <p>
+ * the mailbox is processed by at most one task at a time, and a round only asks for the next round
+ * after it finished, so there is never more than one round in flight for a station. the think time
+ * between rounds, plus the handling time of the actions of the round, is waited on the timer without
+ * holding an executor thread.
+ * <p>
+ * cycle times go to a recorder shared by all stations, a histogram per station would cost far more than the
+ * actor itself. a station only keeps the count, sum and max of its own cycles.
+ */
+@Slf4j
+public class WorkStationActor {
+
+    enum Message {
+        ROUND,
+        STOP
+    }
+
+    /**
+     * @param actions          the number of station actions sent in the round
+     * @param extraDelayMillis simulated handling time of those actions, waited before the next round
+     */
+    public record RoundResult(int actions, long extraDelayMillis) {
+
+        public static final RoundResult EMPTY = new RoundResult(0, 0);
+    }
+
+    private final Long workStationId;
+    private final Function<Long, RoundResult> round;
+    private final LongSupplier thinkTimeMillis;
+    private final Executor executor;
+    private final SimulationTimer timer;
+
+    private final Queue<Message> mailbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean processing = new AtomicBoolean();
+    private volatile boolean stopped;
+
+    private final LatencyRecorder cycleTime;
+    private final LongAdder rounds = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder cycleNanos = new LongAdder();
+    private final LongAccumulator maxCycleNanos = new LongAccumulator(Long::max, 0);
+    private final LongAdder actions = new LongAdder();
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * @param round     performs one picking round of the station
+     * @param cycleTime shared by the actors of all stations
+     */
+    public WorkStationActor(Long workStationId, Function<Long, RoundResult> round, LongSupplier thinkTimeMillis,
+                            Executor executor, SimulationTimer timer, LatencyRecorder cycleTime) {
+        this.workStationId = workStationId;
+        this.round = round;
+        this.thinkTimeMillis = thinkTimeMillis;
+        this.executor = executor;
+        this.timer = timer;
+        this.cycleTime = cycleTime;
+    }
+
+    public void start() {
+        tell(Message.ROUND);
+    }
+
+    public void stop() {
+        tell(Message.STOP);
+    }
+
+    void tell(Message message) {
+        mailbox.offer(message);
+        trySchedule();
+    }
+
+    private void trySchedule() {
+        if (!processing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(this::processMailbox);
+        } catch (RejectedExecutionException e) {
+            processing.set(false);
+            log.warn("work station {} actor rejected, retry after think time", workStationId);
+            timer.schedule(this::trySchedule, thinkTimeMillis.getAsLong(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void processMailbox() {
+        try {
+            Message message;
+            while ((message = mailbox.poll()) != null) {
+                handle(message);
+            }
+        } finally {
+            processing.set(false);
+        }
+
+        if (!mailbox.isEmpty()) {
+            trySchedule();
+        }
+    }
+
+    private void handle(Message message) {
+        if (message == Message.STOP) {
+            stopped = true;
+            return;
+        }
+        if (stopped) {
+            return;
+        }
+
+        long roundStart = System.nanoTime();
+        boolean success = true;
+        long extraDelayMillis = 0;
+        try {
+            RoundResult result = round.apply(workStationId);
+            actions.add(result.actions());
+            extraDelayMillis = result.extraDelayMillis();
+        } catch (Exception e) {
+            success = false;
+            log.error("work station {} picking round error", workStationId, e);
+        }
+        long roundNanos = System.nanoTime() - roundStart;
+        cycleTime.record(roundNanos, success);
+        cycleNanos.add(roundNanos);
+        maxCycleNanos.accumulate(roundNanos);
+        rounds.increment();
+        if (!success) {
+            errors.increment();
+        }
+
+        timer.schedule(() -> tell(Message.ROUND), extraDelayMillis + thinkTimeMillis.getAsLong(), TimeUnit.MILLISECONDS);
+    }
+
+    public StationActorStatsDTO snapshot() {
+        double elapsedSeconds = Math.max((System.nanoTime() - startNanos) / 1_000_000_000D, 0.001D);
+        long actionCount = actions.sum();
+        long roundCount = rounds.sum();
+        return StationActorStatsDTO.builder()
+                .workStationId(workStationId)
+                .rounds(roundCount)
+                .errors(errors.sum())
+                .actions(actionCount)
+                .actionsPerSecond(actionCount / elapsedSeconds)
+                .meanCycleMillis(roundCount == 0 ? 0 : cycleNanos.sum() / 1_000_000D / roundCount)
+                .maxCycleMillis(maxCycleNanos.get() / 1_000_000D)
+                .build();
+    }
+}
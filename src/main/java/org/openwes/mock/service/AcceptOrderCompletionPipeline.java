@@ -0,0 +1,107 @@
+package org.openwes.mock.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.openwes.mock.config.MockConfig;
+import org.openwes.mock.dto.AcceptCompletionStatsDTO;
+import org.openwes.mock.utils.LatencyRecorder;
+import org.openwes.mock.utils.RateLimiter;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * completes NEW accept orders as fast as WES takes them.
+ * <p>
+ * completions are sent asynchronously with at most acceptCompletionConcurrency in flight, and when
+ * acceptCompletionRatePerSecond is set they are also spaced to that rate. accept orders whose completion is
+ * still in flight are skipped when the next drain reads them again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AcceptOrderCompletionPipeline {
+
+    private static final int DRAIN_LIMIT = 1000;
+
+    private final DatabaseQueryService databaseQueryService;
+    private final ApiService apiService;
+    private final ApiStatsService apiStatsService;
+    private final MockConfig mockConfig;
+
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final RateLimiter rateLimiter = new RateLimiter();
+    private final LongAdder skippedInFlight = new LongAdder();
+
+    private Semaphore permits;
+    private int permitCount;
+
+    /**
+     * dispatches the completion of all NEW accept orders found, returns once the last one is dispatched
+     */
+    public synchronized void drain() throws InterruptedException {
+        List<Map<String, Object>> acceptOrders = databaseQueryService.queryAcceptOrders(DRAIN_LIMIT);
+        if (acceptOrders.isEmpty()) {
+            log.debug("No accept orders found");
+            return;
+        }
+
+        Semaphore semaphore = permits();
+        LatencyRecorder completion = apiStatsService.recorder("accept-complete/pipeline");
+        for (Map<String, Object> acceptOrder : acceptOrders) {
+            Long acceptOrderId = ((Number) acceptOrder.get("id")).longValue();
+            if (!inFlight.add(acceptOrderId)) {
+                skippedInFlight.increment();
+                continue;
+            }
+
+            try {
+                rateLimiter.acquire(mockConfig.getAcceptCompletionRatePerSecond());
+                semaphore.acquire();
+            } catch (InterruptedException e) {
+                inFlight.remove(acceptOrderId);
+                throw e;
+            }
+
+            long start = System.nanoTime();
+            try {
+                apiService.callAsync("inbound/accept/completeById?acceptOrderId=" + acceptOrderId, "")
+                        .whenComplete((success, throwable) -> {
+                            completion.record(System.nanoTime() - start, throwable == null && Boolean.TRUE.equals(success));
+                            inFlight.remove(acceptOrderId);
+                            semaphore.release();
+                        });
+            } catch (Exception e) {
+                completion.record(System.nanoTime() - start, false);
+                inFlight.remove(acceptOrderId);
+                semaphore.release();
+                log.error("complete accept order {} error", acceptOrderId, e);
+            }
+        }
+    }
+
+    /**
+     * a new semaphore when the concurrency setting changed, completions in flight release their old one
+     */
+    private Semaphore permits() {
+        int concurrency = Math.max(mockConfig.getAcceptCompletionConcurrency(), 1);
+        if (permits == null || permitCount != concurrency) {
+            permits = new Semaphore(concurrency);
+            permitCount = concurrency;
+        }
+        return permits;
+    }
+
+    public AcceptCompletionStatsDTO stats() {
+        return AcceptCompletionStatsDTO.builder()
+                .inFlight(inFlight.size())
+                .skippedInFlight(skippedInFlight.sum())
+                .completion(apiStatsService.recorder("accept-complete/pipeline").snapshot())
+                .build();
+    }
+}
@@ -5,16 +5,24 @@ import org.openwes.mock.utils.HttpUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 @RequiredArgsConstructor
 public class ApiService {
 
     private final HttpUtils httpUtils;
+    private final ApiStatsService apiStatsService;
 
     @Value("${api.call.host}")
     private String host;
 
     public boolean call(String api, Object requestBody) {
-        return httpUtils.call("http://" + host + ":9010/" + api, requestBody);
+        return callAsync(api, requestBody).join();
+    }
+
+    public CompletableFuture<Boolean> callAsync(String api, Object requestBody) {
+        return apiStatsService.record(ApiStatsService.endpointOf(api),
+                httpUtils.callAsync("http://" + host + ":9010/" + api, requestBody));
     }
 }
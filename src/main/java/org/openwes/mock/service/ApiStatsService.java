@@ -0,0 +1,65 @@
+package org.openwes.mock.service;
+
+import org.openwes.mock.dto.LatencyStatsDTO;
+import org.openwes.mock.utils.LatencyRecorder;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * latency histograms and success/error counters of every WES endpoint the mock calls.
+ */
+@Service
+public class ApiStatsService {
+
+    private final Map<String, LatencyRecorder> recorders = new ConcurrentHashMap<>();
+
+    /**
+     * record the latency and outcome of the call when the future completes, a call is an error when
+     * it completes exceptionally or with {@code false}.
+     */
+    public <T> CompletableFuture<T> record(String endpoint, CompletableFuture<T> future) {
+        return record(endpoint, future, result -> !Boolean.FALSE.equals(result));
+    }
+
+    public <T> CompletableFuture<T> record(String endpoint, CompletableFuture<T> future, Predicate<T> success) {
+        LatencyRecorder recorder = recorder(endpoint);
+        long startNanos = System.nanoTime();
+        return future.whenComplete((result, throwable) ->
+                recorder.record(System.nanoTime() - startNanos, throwable == null && success.test(result)));
+    }
+
+    public LatencyRecorder recorder(String endpoint) {
+        return recorders.computeIfAbsent(endpoint, LatencyRecorder::new);
+    }
+
+    public List<LatencyStatsDTO> snapshot() {
+        return recorders.values().stream()
+                .map(LatencyRecorder::snapshot)
+                .sorted(Comparator.comparing(LatencyStatsDTO::getName))
+                .toList();
+    }
+
+    public void reset() {
+        recorders.values().forEach(LatencyRecorder::reset);
+    }
+
+    /**
+     * the endpoint of a 9010 api is its apiType when present, otherwise the path without query parameters.
+     */
+    public static String endpointOf(String api) {
+        int apiTypeIndex = api.indexOf("apiType=");
+        if (apiTypeIndex >= 0) {
+            int end = api.indexOf('&', apiTypeIndex);
+            return api.substring(apiTypeIndex + "apiType=".length(), end < 0 ? api.length() : end);
+        }
+
+        int queryIndex = api.indexOf('?');
+        return queryIndex < 0 ? api : api.substring(0, queryIndex);
+    }
+}
@@ -0,0 +1,146 @@
+package org.openwes.mock.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.openwes.mock.config.MockConfig;
+import org.openwes.mock.dto.BacklogControllerDTO;
+import org.openwes.mock.dto.BacklogLoopDTO;
+import org.openwes.mock.utils.VirtualClock;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+
+/**
+ * closed-loop pacing of the order generators by the backlog they cause in WES.
+ * <p>
+ * every second the NEW rows of w_inbound_plan_order and e_container_task are counted, bounded by a cap so a
+ * count never scans more than a few times the target. the creation rate of each generator is then scaled by
+ * its relative distance to the target depth: up while WES keeps up, down while the backlog grows. held at the
+ * target the rate is what WES sustains, its average over those samples is reported. generators take permits
+ * from a token bucket filled at that rate in virtual time.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BacklogController {
+
+    private static final double GAIN = 0.2;
+    private static final double MIN_RATE = 0.01;
+    private static final int CAP_FACTOR = 4;
+    private static final double NEAR_TARGET = 0.2;
+    private static final double SUSTAINED_ALPHA = 0.1;
+
+    private final DatabaseQueryService databaseQueryService;
+    private final MockConfig mockConfig;
+    private final VirtualClock virtualClock;
+
+    // the rates start at the former fixed cadences, one order every 10 and 5 seconds
+    private final Loop inbound = new Loop("w_inbound_plan_order", 0.1);
+    private final Loop outbound = new Loop("e_container_task", 0.2);
+
+    @Scheduled(fixedDelay = 1000)
+    public void scheduleSample() {
+        if (!mockConfig.isBacklogControlEnabled()) {
+            return;
+        }
+
+        try {
+            if (mockConfig.isOpenMockCreateInboundPlanOrder()) {
+                inbound.sample(MockConfig::getTargetInboundBacklog, databaseQueryService::countNewInboundPlanOrders);
+            }
+            if (mockConfig.isOpenMockCreateOutboundPlanOrder()) {
+                outbound.sample(MockConfig::getTargetContainerTaskBacklog, databaseQueryService::countNewContainerTasks);
+            }
+        } catch (Exception e) {
+            log.error("sample backlog error", e);
+        }
+    }
+
+    /**
+     * @return the number of inbound orders to create now, at most max
+     */
+    public int acquireInbound(int max) {
+        return inbound.acquire(max);
+    }
+
+    public int acquireOutbound(int max) {
+        return outbound.acquire(max);
+    }
+
+    public BacklogControllerDTO state() {
+        return BacklogControllerDTO.builder()
+                .enabled(mockConfig.isBacklogControlEnabled())
+                .inbound(inbound.state())
+                .outbound(outbound.state())
+                .build();
+    }
+
+    private class Loop {
+
+        private final String backlogTable;
+        private double rate;
+        private double tokens;
+        private long lastRefillMillis = -1;
+        private int backlog;
+        private int targetBacklog;
+        private int countCap;
+        private double sustainedRate;
+        private long created;
+        private long lastSampleAtMillis;
+
+        Loop(String backlogTable, double initialRate) {
+            this.backlogTable = backlogTable;
+            this.rate = initialRate;
+        }
+
+        void sample(ToIntFunction<MockConfig> target, IntUnaryOperator count) {
+            int currentTarget = Math.max(target.applyAsInt(mockConfig), 1);
+            int cap = currentTarget * CAP_FACTOR;
+            int current = count.applyAsInt(cap);
+
+            synchronized (this) {
+                targetBacklog = currentTarget;
+                countCap = cap;
+                backlog = current;
+                lastSampleAtMillis = System.currentTimeMillis();
+
+                double error = Math.max(Math.min((currentTarget - current) / (double) currentTarget, 1), -1);
+                rate = Math.min(Math.max(rate * (1 + GAIN * error), MIN_RATE), Math.max(mockConfig.getMaxOrdersPerSecond(), MIN_RATE));
+                if (Math.abs(error) <= NEAR_TARGET) {
+                    sustainedRate = sustainedRate == 0 ? rate : sustainedRate + SUSTAINED_ALPHA * (rate - sustainedRate);
+                }
+            }
+        }
+
+        /**
+         * the bucket holds at most one second of permits, so a generator that was paused does not burst
+         */
+        synchronized int acquire(int max) {
+            long now = virtualClock.millis();
+            if (lastRefillMillis >= 0) {
+                tokens = Math.min(tokens + rate * (now - lastRefillMillis) / 1000D, Math.max(rate, 1));
+            }
+            lastRefillMillis = now;
+
+            int permits = (int) Math.min(Math.floor(tokens), Math.max(max, 0));
+            tokens -= permits;
+            created += permits;
+            return permits;
+        }
+
+        synchronized BacklogLoopDTO state() {
+            return BacklogLoopDTO.builder()
+                    .backlogTable(backlogTable)
+                    .backlog(backlog)
+                    .targetBacklog(targetBacklog)
+                    .countCap(countCap)
+                    .ratePerSecond(rate)
+                    .sustainedRatePerSecond(sustainedRate)
+                    .created(created)
+                    .lastSampleAtMillis(lastSampleAtMillis)
+                    .build();
+        }
+    }
+}
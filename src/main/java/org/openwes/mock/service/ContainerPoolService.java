@@ -0,0 +1,227 @@
+package org.openwes.mock.service;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.openwes.mock.config.MockConfig;
+import org.openwes.mock.dto.ContainerPoolStatsDTO;
+import org.openwes.mock.utils.JsonUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * pool of OUT_SIDE containers with free slots that inbound acceptance puts stock into.
+ * <p>
+ * a reservation takes one slot of the container under a rotating cursor, the slot count is decremented
+ * locally with a CAS so concurrent acceptances spread over the containers and full ones are skipped. every
+ * reservation of a container gets a slot code of its own, claimed in a bitset of the container slots.
+ * w_container only tells how many slots are empty and not which, so only fully empty containers are pooled,
+ * every slot of them is free. a failed acceptance gives its slot back. the pool is reloaded from w_container
+ * in the background, which drops containers WES started to fill and brings back the ones that got empty.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ContainerPoolService {
+
+    private final DatabaseQueryService databaseQueryService;
+    private final MockConfig mockConfig;
+
+    @Value("${mock.container-pool.refresh-millis:30000}")
+    private long refreshMillis;
+
+    private volatile PooledContainer[] containers = new PooledContainer[0];
+    private final AtomicLong cursor = new AtomicLong();
+    private volatile boolean refreshRequested = true;
+    private volatile long lastRefreshAtMillis;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder exhaustions = new LongAdder();
+    private final LongAdder releases = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+
+    @Scheduled(fixedDelay = 1000)
+    public void scheduleRefresh() {
+        if (!mockConfig.isOpenMockInboundOrderAcceptance()) {
+            return;
+        }
+        if (!refreshRequested && System.currentTimeMillis() - lastRefreshAtMillis < refreshMillis) {
+            return;
+        }
+
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.error("refresh container pool error", e);
+        }
+    }
+
+    public void refresh() {
+        refreshRequested = false;
+        List<Map<String, Object>> rows = databaseQueryService.queryContainers();
+
+        PooledContainer[] loaded = rows.stream()
+                .map(PooledContainer::new)
+                .filter(PooledContainer::isEmpty)
+                .toArray(PooledContainer[]::new);
+        containers = loaded;
+        cursor.set(loaded.length == 0 ? 0 : ThreadLocalRandom.current().nextInt(loaded.length));
+        lastRefreshAtMillis = System.currentTimeMillis();
+        refreshes.increment();
+        log.debug("container pool refreshed with {} containers", loaded.length);
+    }
+
+    /**
+     * @return a slot reserved for the caller, or null when all containers are full
+     */
+    public Reservation reserve() {
+        PooledContainer[] current = containers;
+        for (int probes = 0; probes < current.length; probes++) {
+            PooledContainer container = current[Math.floorMod(cursor.getAndIncrement(), current.length)];
+            if (container.tryReserve()) {
+                hits.increment();
+                return new Reservation(container, container.claimSlot());
+            }
+            misses.increment();
+        }
+
+        exhaustions.increment();
+        refreshRequested = true;
+        return null;
+    }
+
+    /**
+     * gives the reserved slot back when the acceptance did not go through
+     */
+    public void release(Reservation reservation) {
+        reservation.container().releaseSlot(reservation.slotIndex());
+        reservation.container().emptySlots.incrementAndGet();
+        releases.increment();
+    }
+
+    public ContainerPoolStatsDTO stats() {
+        PooledContainer[] current = containers;
+        long availableSlots = 0;
+        for (PooledContainer container : current) {
+            availableSlots += Math.max(container.emptySlots.get(), 0);
+        }
+        return ContainerPoolStatsDTO.builder()
+                .containers(current.length)
+                .availableSlots(availableSlots)
+                .hits(hits.sum())
+                .misses(misses.sum())
+                .exhaustions(exhaustions.sum())
+                .releases(releases.sum())
+                .refreshes(refreshes.sum())
+                .lastRefreshAtMillis(lastRefreshAtMillis)
+                .build();
+    }
+
+    /**
+     * @param slotIndex index of the reserved slot in the container slots, -1 when the slots are unknown
+     */
+    public record Reservation(PooledContainer container, int slotIndex) {
+
+        public String slotCode() {
+            return slotIndex < 0 ? null : container.slotCodes[slotIndex];
+        }
+    }
+
+    @Getter
+    public static class PooledContainer {
+
+        private final Long id;
+        private final String containerCode;
+        private final String containerSpecCode;
+        private final Long warehouseAreaId;
+        private final Long warehouseLogicId;
+        private final AtomicInteger emptySlots;
+        @Getter(AccessLevel.NONE)
+        private final String[] slotCodes;
+        @Getter(AccessLevel.NONE)
+        private final AtomicLongArray takenSlots;
+
+        PooledContainer(Map<String, Object> row) {
+            this.id = (Long) row.get("id");
+            this.containerCode = (String) row.get("container_code");
+            this.containerSpecCode = (String) row.get("container_spec_code");
+            this.slotCodes = parseSlotCodes(row.get("container_slots"));
+            this.takenSlots = new AtomicLongArray((slotCodes.length + 63) >>> 6);
+            this.warehouseAreaId = (Long) row.get("warehouse_area_id");
+            this.warehouseLogicId = (Long) row.get("warehouse_logic_id");
+            int empty = ((Number) row.get("empty_slot_num")).intValue();
+            this.emptySlots = new AtomicInteger(slotCodes.length == 0 ? empty : Math.min(empty, slotCodes.length));
+        }
+
+        /**
+         * without slot codes no slot is sent, any container with room will do
+         */
+        private boolean isEmpty() {
+            return slotCodes.length == 0 || emptySlots.get() == slotCodes.length;
+        }
+
+        private boolean tryReserve() {
+            int slots;
+            do {
+                slots = emptySlots.get();
+                if (slots <= 0) {
+                    return false;
+                }
+            } while (!emptySlots.compareAndSet(slots, slots - 1));
+            return true;
+        }
+
+        /**
+         * the lowest slot no other reservation holds, a reserved count never exceeds the slots so one is free
+         */
+        private int claimSlot() {
+            for (int word = 0; word < takenSlots.length(); word++) {
+                int slotsInWord = Math.min(slotCodes.length - (word << 6), 64);
+                long valid = slotsInWord == 64 ? -1L : (1L << slotsInWord) - 1;
+                while (true) {
+                    long taken = takenSlots.get(word);
+                    long free = ~taken & valid;
+                    if (free == 0) {
+                        break;
+                    }
+                    long bit = Long.lowestOneBit(free);
+                    if (takenSlots.compareAndSet(word, taken, taken | bit)) {
+                        return (word << 6) + Long.numberOfTrailingZeros(bit);
+                    }
+                }
+            }
+            return -1;
+        }
+
+        private void releaseSlot(int slotIndex) {
+            if (slotIndex < 0) {
+                return;
+            }
+            long bit = 1L << (slotIndex & 63);
+            long taken;
+            do {
+                taken = takenSlots.get(slotIndex >>> 6);
+            } while (!takenSlots.compareAndSet(slotIndex >>> 6, taken, taken & ~bit));
+        }
+
+        @SuppressWarnings("rawtypes")
+        private static String[] parseSlotCodes(Object containerSlots) {
+            List<Map> slots = JsonUtils.string2List(JsonUtils.obj2String(containerSlots), Map.class);
+            if (slots == null) {
+                return new String[0];
+            }
+            return slots.stream().map(slot -> (String) slot.get("containerSlotCode")).toArray(String[]::new);
+        }
+    }
+}
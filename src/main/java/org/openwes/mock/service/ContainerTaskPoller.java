@@ -0,0 +1,162 @@
+package org.openwes.mock.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.openwes.mock.config.MockConfig;
+import org.openwes.mock.dto.ContainerTaskDTO;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * incremental poller of NEW container tasks.
+ * <p>
+ * every poll continues after the highest task id seen so far, so rows already handed over are not read
+ * again. the batch grows and the interval shrinks while pages come back full, and back off when the poller
+ * has caught up. a full dispatch queue is back-pressure, the batch is kept and the next poll waits the
+ * longest interval. the cursor is rewound every REWIND_INTERVAL_MILLIS, full pages or not, to pick up tasks
+ * that were released by the dispatcher or committed with a lower id after the cursor passed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ContainerTaskPoller {
+
+    private static final int MIN_BATCH_SIZE = 30;
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final long MIN_INTERVAL_MILLIS = 100;
+    private static final long MAX_INTERVAL_MILLIS = 3000;
+    private static final long REWIND_INTERVAL_MILLIS = 10_000;
+    private static final int QUEUE_CAPACITY = 10_000;
+
+    private final DatabaseQueryService databaseQueryService;
+    private final MockConfig mockConfig;
+
+    private final BlockingQueue<ContainerTaskDTO> dispatchQueue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+
+    /**
+     * task codes queued or being delivered, a task is not handed over twice while it is pending
+     */
+    private final Set<String> pendingTaskCodes = ConcurrentHashMap.newKeySet();
+
+    /**
+     * delivered tasks may still read as NEW until WES has processed the status report
+     */
+    private final Cache<String, Boolean> completedTaskCodes = Caffeine.newBuilder()
+            .expireAfterWrite(30, TimeUnit.SECONDS)
+            .build();
+
+    private long lastId;
+    private int batchSize = MIN_BATCH_SIZE;
+    private long intervalMillis = MAX_INTERVAL_MILLIS;
+    private long nextPollAtMillis;
+    private long lastRewindAtMillis;
+    private volatile int lastPageSize;
+
+    @Scheduled(fixedDelay = MIN_INTERVAL_MILLIS)
+    public void schedule() {
+        if (!mockConfig.isOpenMockContainerArrived()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        if (now < nextPollAtMillis) {
+            return;
+        }
+
+        try {
+            poll(now);
+        } catch (Exception e) {
+            log.error("poll container tasks error", e);
+            nextPollAtMillis = now + MAX_INTERVAL_MILLIS;
+        }
+    }
+
+    private void poll(long now) {
+        if (now - lastRewindAtMillis >= REWIND_INTERVAL_MILLIS) {
+            lastId = 0;
+            lastRewindAtMillis = now;
+        }
+
+        List<Map<String, Object>> rows = databaseQueryService.queryContainerTasksAfter(lastId, batchSize);
+        lastPageSize = rows.size();
+
+        boolean saturated = false;
+        for (Map<String, Object> row : rows) {
+            ContainerTaskDTO task = toContainerTask(row);
+            lastId = Math.max(lastId, task.getId());
+
+            if (completedTaskCodes.getIfPresent(task.getTaskCode()) != null || !pendingTaskCodes.add(task.getTaskCode())) {
+                continue;
+            }
+            if (!dispatchQueue.offer(task)) {
+                // the dispatcher is saturated, the next poll goes on from this task
+                pendingTaskCodes.remove(task.getTaskCode());
+                lastId = task.getId() - 1;
+                saturated = true;
+                break;
+            }
+        }
+
+        if (saturated) {
+            intervalMillis = MAX_INTERVAL_MILLIS;
+        } else if (rows.size() >= batchSize) {
+            batchSize = Math.min(batchSize * 2, MAX_BATCH_SIZE);
+            intervalMillis = MIN_INTERVAL_MILLIS;
+        } else {
+            batchSize = Math.max(batchSize / 2, MIN_BATCH_SIZE);
+            intervalMillis = Math.min(intervalMillis * 2, MAX_INTERVAL_MILLIS);
+        }
+        nextPollAtMillis = now + intervalMillis;
+    }
+
+    private static ContainerTaskDTO toContainerTask(Map<String, Object> row) {
+        return ContainerTaskDTO.builder()
+                .id(((Number) row.get("id")).longValue())
+                .containerCode((String) row.get("container_code"))
+                .containerFace((String) row.get("container_face"))
+                .destinations(row.get("destinations"))
+                .taskCode((String) row.get("task_code"))
+                .containerTaskType((String) row.get("container_task_type"))
+                .build();
+    }
+
+    /**
+     * move up to maxTasks queued tasks into the given collection without waiting
+     */
+    public int drainTo(Collection<ContainerTaskDTO> tasks, int maxTasks) {
+        return dispatchQueue.drainTo(tasks, maxTasks);
+    }
+
+    /**
+     * the task was delivered to WES
+     */
+    public void complete(ContainerTaskDTO task) {
+        completedTaskCodes.put(task.getTaskCode(), Boolean.TRUE);
+        pendingTaskCodes.remove(task.getTaskCode());
+    }
+
+    /**
+     * the task could not be delivered now, it is polled again after the next rewind
+     */
+    public void release(ContainerTaskDTO task) {
+        pendingTaskCodes.remove(task.getTaskCode());
+    }
+
+    /**
+     * tasks handed over and not yet completed plus the size of the last page, a cheap backlog estimate
+     */
+    public int getBacklogEstimate() {
+        return pendingTaskCodes.size() + lastPageSize;
+    }
+}
@@ -1,28 +1,56 @@
 package org.openwes.mock.service;
 
+import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.ObjectUtils;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 @RequiredArgsConstructor
 public class DatabaseQueryService {
 
+    private static final long ID_RANGE_TTL_MILLIS = 60_000;
+
+    private static final String SKU_SAMPLE_SQL = "SELECT warehouse_code as warehouseCode, owner_code as ownerCode, sku_code as skuCode " +
+            "FROM m_sku_main_data WHERE id >= ? AND id < ? ORDER BY id LIMIT ?";
+
+    private static final String SKU_BATCH_STOCK_SAMPLE_SQL = "select t2.sku_code as skuCode,t2.owner_code as ownerCode,t2.warehouse_code as warehouseCode," +
+            "t1.available_qty from w_sku_batch_stock t1 inner join m_sku_main_data t2 on t1.sku_id = t2.id" +
+            " where t1.available_qty>0 and t1.id >= ? and t1.id < ? order by t1.id LIMIT ?";
+
     private final JdbcTemplate jdbcTemplate;
-    private volatile Long countSku = 0L;
 
-    private List<Map<String, Object>> containers = null;
+    private final Map<String, IdRange> idRanges = new ConcurrentHashMap<>();
+
+    @AllArgsConstructor
+    private static class IdRange {
+        private final long minId;
+        private final long maxId;
+        private final long loadedAtMillis;
+    }
 
+    /**
+     * 10 to 100 consecutive skus starting at a random id, see sampleByKeyset
+     */
     public List<Map<String, Object>> querySku() {
-        Long count = countSku();
+        int skuNumber = ThreadLocalRandom.current().nextInt(10, 100);
+        return sampleByKeyset("m_sku_main_data", SKU_SAMPLE_SQL, skuNumber);
+    }
+
+    /**
+     * the former random OFFSET sampling, its cost grows with the offset. only kept for the sampling benchmark.
+     */
+    public List<Map<String, Object>> querySkuByOffset(long skuCount) {
         int skuNumber = new Random().nextInt(10, 100);
-        int randomOffset = new Random().nextInt(Math.max(1, (int) (count - skuNumber)));
+        int randomOffset = new Random().nextInt(Math.max(1, (int) (skuCount - skuNumber)));
 
         String sql = "SELECT warehouse_code as warehouseCode, owner_code as ownerCode, sku_code as skuCode " +
                 "FROM m_sku_main_data LIMIT " + skuNumber + " OFFSET " + randomOffset;
@@ -30,33 +58,116 @@ public class DatabaseQueryService {
         return jdbcTemplate.queryForList(sql);
     }
 
-    private Long countSku() {
+    public Long countSku() {
+        String sql = "SELECT COUNT(id) FROM m_sku_main_data";
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
 
-        if (countSku > 0) {
-            return countSku;
+    /**
+     * reads up to limit rows with an id at or after a random id between the cached min and max id of the table,
+     * wrapping around to the start when the end of the table is reached. both reads are index range scans on the
+     * primary key, so the cost does not depend on the table size. rows right after a gap in the ids are picked
+     * a bit more often than others, which is fine for generating load.
+     *
+     * @param sql query taking the lower id bound (inclusive), the upper id bound (exclusive) and the limit
+     */
+    private List<Map<String, Object>> sampleByKeyset(String table, String sql, int limit) {
+        IdRange range = idRange(table);
+        if (range == null) {
+            return Collections.emptyList();
         }
 
-        String sql = "SELECT COUNT(id) FROM m_sku_main_data";
-        countSku = jdbcTemplate.queryForObject(sql, Long.class);
-        return countSku;
+        long startId = ThreadLocalRandom.current().nextLong(range.minId, range.maxId + 1);
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(sql, startId, Long.MAX_VALUE, limit);
+        if (rows.size() >= limit || startId == range.minId) {
+            return rows;
+        }
+
+        List<Map<String, Object>> result = new ArrayList<>(limit);
+        result.addAll(rows);
+        result.addAll(jdbcTemplate.queryForList(sql, range.minId, startId, limit - rows.size()));
+        return result;
     }
 
-    public List<Map<String, Object>> queryContainerTasks() {
-        String sql = "select container_code,container_face,destinations,task_code,container_task_type from e_container_task " +
-                "where task_status = 'NEW' limit 30";
-        return jdbcTemplate.queryForList(sql);
+    /**
+     * min and max id of the table, reloaded every minute so that new rows become reachable
+     */
+    private IdRange idRange(String table) {
+        IdRange range = idRanges.get(table);
+        if (range != null && System.currentTimeMillis() - range.loadedAtMillis < ID_RANGE_TTL_MILLIS) {
+            return range;
+        }
+
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM " + table);
+        if (row.get("min_id") == null) {
+            idRanges.remove(table);
+            return null;
+        }
+
+        range = new IdRange(((Number) row.get("min_id")).longValue(), ((Number) row.get("max_id")).longValue(),
+                System.currentTimeMillis());
+        idRanges.put(table, range);
+        return range;
     }
 
+    /**
+     * NEW inbound plan orders counted up to cap, so the count stays cheap however far WES falls behind
+     */
+    public int countNewInboundPlanOrders(int cap) {
+        String sql = "SELECT COUNT(*) FROM (SELECT 1 FROM w_inbound_plan_order " +
+                "WHERE inbound_plan_order_status = 'NEW' LIMIT ?) t";
+        return jdbcTemplate.queryForObject(sql, Integer.class, cap);
+    }
+
+    /**
+     * NEW container tasks counted up to cap
+     */
+    public int countNewContainerTasks(int cap) {
+        String sql = "SELECT COUNT(*) FROM (SELECT 1 FROM e_container_task WHERE task_status = 'NEW' LIMIT ?) t";
+        return jdbcTemplate.queryForObject(sql, Integer.class, cap);
+    }
+
+    /**
+     * keyset page of NEW container tasks after the given id, ordered by id
+     */
+    public List<Map<String, Object>> queryContainerTasksAfter(long lastId, int limit) {
+        String sql = "select id,container_code,container_face,destinations,task_code,container_task_type from e_container_task " +
+                "where task_status = 'NEW' and id > ? order by id limit ?";
+        return jdbcTemplate.queryForList(sql, lastId, limit);
+    }
+
+    /**
+     * 10 to 1000 consecutive stocks with available qty starting at a random id, see sampleByKeyset
+     */
     public List<Map<String, Object>> querySkuBatchStock() {
+        return querySkuBatchStock(ThreadLocalRandom.current().nextInt(10, 1000));
+    }
 
-        Long totalCount = querySkuBatchStockCount();
-        if (totalCount == null || totalCount == 0) {
+    public List<Map<String, Object>> querySkuBatchStock(int limit) {
+        return sampleByKeyset("w_sku_batch_stock", SKU_BATCH_STOCK_SAMPLE_SQL, limit);
+    }
+
+    /**
+     * keyset page of stocks with available qty after the given stock id, ordered by id
+     */
+    public List<Map<String, Object>> querySkuBatchStockAfter(long lastId, int limit) {
+        String sql = "select t1.id, t2.sku_code as skuCode,t2.owner_code as ownerCode,t2.warehouse_code as warehouseCode," +
+                "t1.available_qty from w_sku_batch_stock t1 inner join m_sku_main_data t2 on t1.sku_id = t2.id" +
+                " where t1.available_qty>0 and t1.id > ? order by t1.id LIMIT ?";
+        return jdbcTemplate.queryForList(sql, lastId, limit);
+    }
+
+    /**
+     * the former random OFFSET sampling, only kept for the sampling benchmark
+     */
+    public List<Map<String, Object>> querySkuBatchStockByOffset(long totalCount) {
+        if (totalCount == 0) {
             return Collections.emptyList();
         }
 
         // 计算随机数量和偏移量
         int skuNumber = new Random().nextInt(10, 1000);
-        int randomOffset = new Random().nextInt(Math.max(1, totalCount.intValue() - skuNumber));
+        int randomOffset = new Random().nextInt(Math.max(1, (int) totalCount - skuNumber));
 
         String sql = "select t2.sku_code as skuCode,t2.owner_code as ownerCode,t2.warehouse_code as warehouseCode," +
                 "t1.available_qty from w_sku_batch_stock t1 inner join m_sku_main_data t2 on t1.sku_id = t2.id" +
@@ -64,42 +175,39 @@ public class DatabaseQueryService {
         return jdbcTemplate.queryForList(sql);
     }
 
-    public List<Map<String, Object>> queryInboundOrders() {
-        String sql = "SELECT t1.id, warehouse_code, customer_order_no " +
+    /**
+     * pending inbound orders with their first open detail in one round trip
+     */
+    public List<Map<String, Object>> queryInboundOrdersForAcceptance(int limit) {
+        String sql = "SELECT t1.id, t1.warehouse_code, t1.customer_order_no, " +
+                "t2.id AS detail_id, t2.sku_code, t2.qty_restocked, t2.qty_accepted, t2.qty_abnormal " +
                 "FROM w_inbound_plan_order t1 " +
-                "WHERE inbound_plan_order_status in ('NEW','ACCEPTING') " +
-                "LIMIT 30";
-
-        return jdbcTemplate.queryForList(sql);
-    }
+                "JOIN w_inbound_plan_order_detail t2 ON t2.id = (" +
+                "SELECT MIN(d.id) FROM w_inbound_plan_order_detail d " +
+                "WHERE d.inbound_plan_order_id = t1.id AND d.qty_accepted < d.qty_restocked - d.qty_abnormal) " +
+                "WHERE t1.inbound_plan_order_status in ('NEW','ACCEPTING') " +
+                "LIMIT ?";
 
-    public List<Map<String, Object>> queryInboundOrderDetails(Long orderId) {
-        String detailSql = "SELECT id, sku_code, qty_restocked, qty_accepted,qty_abnormal " +
-                "FROM w_inbound_plan_order_detail " +
-                "WHERE inbound_plan_order_id = ? AND qty_accepted < qty_restocked-qty_abnormal limit 1";
-        return jdbcTemplate.queryForList(detailSql, orderId);
+        return jdbcTemplate.queryForList(sql, limit);
     }
 
-    public synchronized List<Map<String, Object>> queryContainers() {
-
-        if (ObjectUtils.isNotEmpty(containers)) {
-            return containers;
-        }
-
+    /**
+     * OUT_SIDE containers with free slots, pooled by ContainerPoolService
+     */
+    public List<Map<String, Object>> queryContainers() {
         String containerSql = "SELECT id, container_code, container_spec_code, container_slots, " +
                 "empty_slot_num, warehouse_area_id, warehouse_logic_id " +
                 "FROM w_container " +
                 "WHERE container_status = 'OUT_SIDE' AND empty_slot_num > 0 ";
-        containers = jdbcTemplate.queryForList(containerSql);
-        return containers;
+        return jdbcTemplate.queryForList(containerSql);
     }
 
-    public List<Map<String, Object>> queryAcceptOrders() {
+    public List<Map<String, Object>> queryAcceptOrders(int limit) {
         String sql = "SELECT id " +
                 "FROM w_accept_order " +
                 "WHERE  accept_order_status in ('NEW') " +
-                "LIMIT 100";
-        return jdbcTemplate.queryForList(sql);
+                "LIMIT ?";
+        return jdbcTemplate.queryForList(sql, limit);
 
     }
 
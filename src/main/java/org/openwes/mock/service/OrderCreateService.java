@@ -0,0 +1,85 @@
+package org.openwes.mock.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * builds mock inbound and outbound plan orders and sends them to WES.
+ * <p>
+ * the sku/stock selection runs on the calling thread, the WES call itself is asynchronous. inbound skus come
+ * from the sku reservoir once it holds any, outbound lines are reserved against the stock ledger. the number of
+ * lines and the outbound qty follow the order profile.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OrderCreateService {
+
+    private final DatabaseQueryService databaseQueryService;
+    private final ApiService apiService;
+    private final SkuReservoirService skuReservoirService;
+    private final OrderProfileGenerator orderProfileGenerator;
+    private final StockLedgerService stockLedgerService;
+
+    public CompletableFuture<Boolean> createInboundPlanOrder() {
+        List<Map<String, Object>> result = skuReservoirService.isEmpty()
+                ? databaseQueryService.querySku()
+                : skuReservoirService.pickSkus(orderProfileGenerator.nextLineCount());
+        if (result.isEmpty()) {
+            return CompletableFuture.completedFuture(false);
+        }
+
+        for (Map<String, Object> map : result) {
+            map.put("qtyRestocked", new Random().nextInt(1, 1000));
+        }
+
+        String warehouseCode = result.getFirst().get("warehouseCode").toString();
+
+        Map<String, Object> requestBody = Map.of("customerOrderNo", UUID.randomUUID().toString(),
+                "lpnCode", UUID.randomUUID().toString(),
+                "warehouseCode", warehouseCode,
+                "storageType", "STORAGE",
+                "details", result);
+
+        return apiService.callAsync("api/execute?apiType=ORDER_INBOUND_CREATE", requestBody);
+    }
+
+    public CompletableFuture<Boolean> createOutboundPlanOrder() {
+        int lineCount = orderProfileGenerator.nextLineCount();
+        List<Map<String, Object>> result = stockLedgerService.reserveOrderLines(lineCount);
+        if (result == null) {
+            result = querySkuBatchStockLines(lineCount);
+        }
+        if (result.isEmpty()) {
+            return CompletableFuture.completedFuture(false);
+        }
+
+        String warehouseCode = result.getFirst().get("warehouseCode").toString();
+
+        Map<String, Object> requestBody = Map.of("customerOrderNo", UUID.randomUUID().toString(),
+                "warehouseCode", warehouseCode,
+                "shortOutbound", true,
+                "details", result);
+
+        return apiService.callAsync("api/execute?apiType=ORDER_OUTBOUND_CREATE", requestBody);
+    }
+
+    /**
+     * used until the stock ledger is loaded
+     */
+    private List<Map<String, Object>> querySkuBatchStockLines(int lineCount) {
+        List<Map<String, Object>> result = databaseQueryService.querySkuBatchStock(lineCount);
+        for (Map<String, Object> map : result) {
+            int availableQty = (int) map.get("available_qty");
+            map.put("qtyRequired", orderProfileGenerator.nextQty(Math.max(availableQty, 1)));
+        }
+        return result;
+    }
+}
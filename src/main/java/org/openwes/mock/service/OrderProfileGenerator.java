@@ -0,0 +1,120 @@
+package org.openwes.mock.service;
+
+import lombok.RequiredArgsConstructor;
+import org.openwes.mock.config.MockConfig;
+import org.openwes.mock.constants.SkuPopularityEnum;
+import org.openwes.mock.utils.ZipfSampler;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * shapes generated orders like production traffic: the number of lines per order and the qty per line follow
+ * geometric distributions with configurable means and caps, and the skus are picked by a skewed popularity.
+ * <p>
+ * popularity works on ranks over n in-memory items, rank k is mapped to item (k - 1) * STRIDE mod n, a fixed
+ * permutation that spreads the popular items over the whole table instead of its first rows. everything here
+ * is arithmetic on the calling thread, no database and no allocation per draw.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderProfileGenerator {
+
+    private static final long STRIDE = 1_000_000_007L;
+
+    private static final double ABC_A_RATIO = 0.2;
+    private static final double ABC_B_RATIO = 0.5;
+    private static final double ABC_A_SHARE = 0.8;
+    private static final double ABC_B_SHARE = 0.95;
+
+    private final MockConfig mockConfig;
+
+    /**
+     * one sampler per power of two size class, callers with different and growing n share them
+     */
+    private final AtomicReferenceArray<ZipfSampler> zipfSamplers = new AtomicReferenceArray<>(Integer.SIZE);
+
+    public int nextLineCount() {
+        return geometric(mockConfig.getOrderLinesMean(), mockConfig.getOrderLinesMax());
+    }
+
+    public int nextQty(int maxQty) {
+        return geometric(mockConfig.getOrderQtyMean(), Math.min(mockConfig.getOrderQtyMax(), maxQty));
+    }
+
+    /**
+     * @return the index of an item out of n by the configured popularity, or -1 when n is 0
+     */
+    public int nextIndex(int n) {
+        if (n <= 0) {
+            return -1;
+        }
+
+        SkuPopularityEnum popularity = mockConfig.getSkuPopularity();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long rankIndex = switch (popularity == null ? SkuPopularityEnum.UNIFORM : popularity) {
+            case UNIFORM -> random.nextInt(n);
+            case ZIPF -> zipfRank(n) - 1;
+            case ABC -> abcRankIndex(n, random);
+        };
+        return permute(rankIndex, n);
+    }
+
+    /**
+     * draws from the sampler of the size class of n and redraws ranks above n. a zipf law cut at n is again
+     * a zipf law, so the ranks follow it exactly, and at most half of the mass lies above n
+     */
+    private int zipfRank(int n) {
+        ZipfSampler sampler = zipfSampler(n);
+        int rank;
+        do {
+            rank = sampler.sample();
+        } while (rank > n);
+        return rank;
+    }
+
+    private ZipfSampler zipfSampler(int n) {
+        int sizeClass = n == 1 ? 0 : Integer.SIZE - Integer.numberOfLeadingZeros(n - 1);
+        double exponent = mockConfig.getZipfExponent();
+        ZipfSampler sampler = zipfSamplers.get(sizeClass);
+        if (sampler == null || sampler.getExponent() != exponent) {
+            sampler = new ZipfSampler((int) Math.min(1L << sizeClass, Integer.MAX_VALUE), exponent);
+            zipfSamplers.set(sizeClass, sampler);
+        }
+        return sampler;
+    }
+
+    private static long abcRankIndex(int n, ThreadLocalRandom random) {
+        int aEnd = Math.max(1, (int) (n * ABC_A_RATIO));
+        int bEnd = Math.max(aEnd, (int) (n * ABC_B_RATIO));
+        double u = random.nextDouble();
+        if (u < ABC_A_SHARE || aEnd == n) {
+            return random.nextInt(aEnd);
+        }
+        if (u < ABC_B_SHARE && bEnd > aEnd || bEnd == n) {
+            return random.nextInt(aEnd, bEnd);
+        }
+        return random.nextInt(bEnd, n);
+    }
+
+    private static int permute(long rankIndex, int n) {
+        if (n % STRIDE == 0) {
+            return (int) rankIndex;
+        }
+        return (int) (rankIndex * STRIDE % n);
+    }
+
+    /**
+     * 1 + geometric number of failures, so that the mean is the given mean before the cap
+     */
+    private static int geometric(double mean, int max) {
+        if (max <= 1 || mean <= 1) {
+            return 1;
+        }
+        double p = 1 / mean;
+        double u = ThreadLocalRandom.current().nextDouble();
+        long value = 1 + (long) Math.floor(Math.log1p(-u) / Math.log1p(-p));
+        return (int) Math.min(value, max);
+    }
+}
@@ -0,0 +1,62 @@
+package org.openwes.mock.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.openwes.mock.dto.SamplingBenchmarkDTO;
+import org.openwes.mock.utils.LatencyRecorder;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * compares the random OFFSET sampling with the keyset sampling of DatabaseQueryService on the live database.
+ * the strategies run interleaved so that buffer pool warm up and concurrent load hit both of them alike.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SamplingBenchmarkService {
+
+    private final DatabaseQueryService databaseQueryService;
+
+    public synchronized SamplingBenchmarkDTO run(int iterations) {
+        long skuRows = databaseQueryService.countSku();
+        Long stockCount = databaseQueryService.querySkuBatchStockCount();
+        long stockRows = stockCount == null ? 0 : stockCount;
+
+        LatencyRecorder offsetSku = new LatencyRecorder("offset/sku");
+        LatencyRecorder keysetSku = new LatencyRecorder("keyset/sku");
+        LatencyRecorder offsetStock = new LatencyRecorder("offset/sku-batch-stock");
+        LatencyRecorder keysetStock = new LatencyRecorder("keyset/sku-batch-stock");
+
+        for (int i = 0; i < iterations; i++) {
+            measure(offsetSku, () -> databaseQueryService.querySkuByOffset(skuRows));
+            measure(keysetSku, databaseQueryService::querySku);
+            measure(offsetStock, () -> databaseQueryService.querySkuBatchStockByOffset(stockRows));
+            measure(keysetStock, databaseQueryService::querySkuBatchStock);
+        }
+
+        SamplingBenchmarkDTO result = SamplingBenchmarkDTO.builder()
+                .skuRows(skuRows)
+                .skuBatchStockRows(stockRows)
+                .iterations(iterations)
+                .results(List.of(offsetSku.snapshot(), keysetSku.snapshot(), offsetStock.snapshot(), keysetStock.snapshot()))
+                .build();
+        log.info("sampling benchmark: {}", result);
+        return result;
+    }
+
+    private static void measure(LatencyRecorder recorder, Supplier<List<Map<String, Object>>> query) {
+        long start = System.nanoTime();
+        boolean success = true;
+        try {
+            query.get();
+        } catch (Exception e) {
+            success = false;
+            log.warn("sampling benchmark query error", e);
+        }
+        recorder.record(System.nanoTime() - start, success);
+    }
+}
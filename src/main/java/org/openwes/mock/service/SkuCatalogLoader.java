@@ -0,0 +1,74 @@
+package org.openwes.mock.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+/**
+ * streams m_sku_main_data once after startup into the sku id index and the sku reservoir, on a background
+ * thread so that the mock is usable while the table is read.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SkuCatalogLoader {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SkuIdIndexService skuIdIndexService;
+    private final SkuReservoirService skuReservoirService;
+
+    @Value("${mock.sku-index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${mock.sku-index.expected-size:1048576}")
+    private int expectedSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+
+        skuIdIndexService.reset(expectedSize);
+        skuReservoirService.reset();
+        Thread loader = new Thread(this::stream, "sku-catalog-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void stream() {
+        long start = System.currentTimeMillis();
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(
+                        "SELECT id, warehouse_code, owner_code, sku_code FROM m_sku_main_data",
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                // makes MySQL Connector/J stream the rows instead of buffering the whole result set
+                ps.setFetchSize(Integer.MIN_VALUE);
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                long id = rs.getLong(1);
+                String warehouseCode = rs.getString(2);
+                String skuCode = rs.getString(4);
+                skuIdIndexService.put(warehouseCode, skuCode, id);
+                skuReservoirService.add(id, warehouseCode, rs.getString(3), skuCode);
+            });
+
+            long loadMillis = System.currentTimeMillis() - start;
+            skuIdIndexService.markLoaded(loadMillis);
+            skuReservoirService.markLoaded();
+            log.info("sku catalog loaded in {} ms, index: {}, reservoir: {}", loadMillis,
+                    skuIdIndexService.stats(), skuReservoirService.stats());
+        } catch (Exception e) {
+            log.error("sku catalog load error, sku lookups fall back to the database", e);
+        }
+    }
+}
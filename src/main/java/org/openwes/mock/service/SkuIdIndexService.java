@@ -0,0 +1,108 @@
+package org.openwes.mock.service;
+
+import lombok.RequiredArgsConstructor;
+import org.openwes.mock.dto.SkuIndexStatsDTO;
+import org.openwes.mock.utils.LongLongHashMap;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * in-memory index from (warehouse_code, sku_code) to the id of m_sku_main_data.
+ * <p>
+ * the pair is hashed to 64 bits and kept in a primitive open addressing map, the codes themselves are not
+ * stored. SkuCatalogLoader streams the table into it once the application is ready and the mock adds the
+ * skus it inserts itself. a miss falls back to the database, so a lookup before the load finished still works.
+ * two pairs sharing a 64-bit hash would return the wrong id, the chance that any two of 10M skus collide
+ * is about 3 in a million.
+ */
+@Service
+@RequiredArgsConstructor
+public class SkuIdIndexService {
+
+    private static final long NO_ID = Long.MIN_VALUE;
+
+    private final DatabaseQueryService databaseQueryService;
+
+    private volatile LongLongHashMap index = new LongLongHashMap(16);
+    private volatile boolean loaded;
+    private volatile long loadMillis;
+
+    /**
+     * starts a new empty index before SkuCatalogLoader streams the table into it
+     */
+    public void reset(int expectedSize) {
+        index = new LongLongHashMap(expectedSize);
+        loaded = false;
+    }
+
+    public void markLoaded(long loadMillis) {
+        this.loadMillis = loadMillis;
+        this.loaded = true;
+    }
+
+    public void put(String warehouseCode, String skuCode, long skuId) {
+        index.put(key(warehouseCode, skuCode), skuId);
+    }
+
+    /**
+     * @return the sku id or null when the sku does not exist in the warehouse
+     */
+    public Long getSkuId(String skuCode, String warehouseCode) {
+        long skuId = index.get(key(warehouseCode, skuCode), NO_ID);
+        if (skuId != NO_ID) {
+            return skuId;
+        }
+
+        try {
+            Long found = databaseQueryService.querySkuId(skuCode, warehouseCode);
+            if (found != null) {
+                put(warehouseCode, skuCode, found);
+            }
+            return found;
+        } catch (EmptyResultDataAccessException e) {
+            return null;
+        }
+    }
+
+    public SkuIndexStatsDTO stats() {
+        LongLongHashMap current = index;
+        return SkuIndexStatsDTO.builder()
+                .loaded(loaded)
+                .loadMillis(loadMillis)
+                .entries(current.size())
+                .capacity(current.capacity())
+                .memoryBytes(current.memoryBytes())
+                .bytesPerEntry(current.bytesPerEntry())
+                .build();
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes of both codes, finished with the murmur3 mixer so that the low bits
+     * used for the slot are well spread
+     */
+    static long key(String warehouseCode, String skuCode) {
+        long hash = 0xcbf29ce484222325L;
+        hash = fnv(hash, warehouseCode);
+        hash = (hash ^ 0xff) * 0x100000001b3L;
+        hash = fnv(hash, skuCode);
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static long fnv(long hash, String value) {
+        if (value == null) {
+            return hash;
+        }
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,116 @@
+package org.openwes.mock.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.openwes.mock.dto.SkuReservoirStatsDTO;
+import org.openwes.mock.utils.SkuReservoir;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * random skus for order generation without the database, backed by a SkuReservoir that SkuCatalogLoader fills
+ * at startup and SkuBatchInserter extends.
+ */
+@Service
+@RequiredArgsConstructor
+public class SkuReservoirService {
+
+    private final OrderProfileGenerator orderProfileGenerator;
+
+    @Value("${mock.sku-reservoir.off-heap:false}")
+    private boolean offHeap;
+
+    private volatile SkuReservoir reservoir;
+    private volatile boolean loaded;
+
+    @PostConstruct
+    public void init() {
+        reservoir = new SkuReservoir(offHeap);
+    }
+
+    /**
+     * starts a new empty reservoir before SkuCatalogLoader streams the table into it
+     */
+    public void reset() {
+        reservoir = new SkuReservoir(offHeap);
+        loaded = false;
+    }
+
+    public void markLoaded() {
+        loaded = true;
+    }
+
+    public void add(long id, String warehouseCode, String ownerCode, String skuCode) {
+        reservoir.add(id, warehouseCode, ownerCode, skuCode);
+    }
+
+    public boolean isEmpty() {
+        return reservoir.size() == 0;
+    }
+
+    /**
+     * up to count distinct skus drawn by the popularity of the order profile, all from the warehouse of the first
+     * pick, as rows shaped like DatabaseQueryService.querySku
+     */
+    public List<Map<String, Object>> pickSkus(int count) {
+        SkuReservoir current = reservoir;
+        int size = current.size();
+        int first = orderProfileGenerator.nextIndex(size);
+        if (first < 0) {
+            return new ArrayList<>();
+        }
+
+        String warehouseCode = current.warehouseCode(first);
+        int[] picked = new int[Math.min(count, size)];
+        int pickedCount = 0;
+        picked[pickedCount++] = first;
+        // a few extra draws for repeated skus and skus of other warehouses, then the order just gets fewer lines
+        for (int draws = 0; pickedCount < picked.length && draws < count * 4; draws++) {
+            int index = orderProfileGenerator.nextIndex(size);
+            if (!contains(picked, pickedCount, index) && warehouseCode.equals(current.warehouseCode(index))) {
+                picked[pickedCount++] = index;
+            }
+        }
+
+        List<Map<String, Object>> skus = new ArrayList<>(pickedCount);
+        for (int i = 0; i < pickedCount; i++) {
+            skus.add(toRow(current, picked[i]));
+        }
+        return skus;
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, Object> toRow(SkuReservoir reservoir, int index) {
+        Map<String, Object> row = new HashMap<>(4);
+        row.put("warehouseCode", reservoir.warehouseCode(index));
+        row.put("ownerCode", reservoir.ownerCode(index));
+        row.put("skuCode", reservoir.skuCode(index));
+        return row;
+    }
+
+    public SkuReservoirStatsDTO stats() {
+        SkuReservoir current = reservoir;
+        int size = current.size();
+        long memoryBytes = current.memoryBytes();
+        return SkuReservoirStatsDTO.builder()
+                .loaded(loaded)
+                .offHeap(current.isOffHeap())
+                .entries(size)
+                .memoryBytes(memoryBytes)
+                .bytesPerEntry(size == 0 ? 0 : (double) memoryBytes / size)
+                .build();
+    }
+}
@@ -1,5 +1,8 @@
 package org.openwes.mock.service;
 
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.openwes.mock.constants.ApiCodeEnum;
@@ -10,6 +13,7 @@ import org.openwes.mock.dto.WorkStationDTO;
 import org.openwes.mock.dto.WorkStationVO;
 import org.openwes.mock.utils.HttpUtils;
 import org.openwes.mock.utils.JsonUtils;
+import org.openwes.mock.utils.WorkStationVOReader;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -17,6 +21,11 @@ import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,23 +35,79 @@ public class StationService {
 
     private final JdbcTemplate jdbcTemplate;
     private final HttpUtils httpUtils;
+    private final ApiStatsService apiStatsService;
+
+    private static final String STATION_ENDPOINT_PREFIX = "station/";
 
     @Value("${api.call.host}")
     private String host;
 
+    @Value("${mock.station.snapshot-ttl-millis:300}")
+    private long snapshotTtlMillis;
+
+    /**
+     * short lived station snapshots shared by the schedulers, one per station and set of requested parts so
+     * each scheduler only binds the areas it reads. concurrent callers share the one fetch that is in flight.
+     */
+    private AsyncLoadingCache<SnapshotKey, WorkStationVO> snapshotCache;
+
+    /**
+     * the part sets asked for so far, a handful, used to drop every snapshot of a station
+     */
+    private final Set<Set<WorkStationVOReader.Part>> requestedParts = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void initSnapshotCache() {
+        snapshotCache = Caffeine.newBuilder()
+                .expireAfterWrite(snapshotTtlMillis, TimeUnit.MILLISECONDS)
+                .maximumSize(10_000)
+                .buildAsync((key, executor) -> getWorkStationVOAsync(key.workStationId(), key.parts()));
+    }
+
+    /**
+     * the cached snapshot with all the areas, null when the station is offline.
+     */
     public WorkStationVO getWorkStationVO(Long workStationId) {
-        String response = httpUtils.get("http://" + host + ":9040/api?stationCode=" + workStationId);
+        return getWorkStationVO(workStationId, WorkStationVOReader.Part.ALL);
+    }
 
-        if (response == null) {
-            return null;
-        }
+    /**
+     * the cached snapshot with only the given areas bound, null when the station is offline.
+     */
+    public WorkStationVO getWorkStationVO(Long workStationId, Set<WorkStationVOReader.Part> parts) {
+        return getWorkStationSnapshotAsync(workStationId, parts).join();
+    }
 
-        WorkStationVO workStationVO = JsonUtils.string2Object(response, WorkStationVO.class);
-        if (workStationVO == null || workStationVO.getWorkStationStatus() == WorkStationStatusEnum.OFFLINE) {
-            return null;
+    public CompletableFuture<WorkStationVO> getWorkStationSnapshotAsync(Long workStationId, Set<WorkStationVOReader.Part> parts) {
+        requestedParts.add(parts);
+        return snapshotCache.get(new SnapshotKey(workStationId, parts));
+    }
+
+    /**
+     * drop the cached snapshots after changing the station state, the next caller fetches a fresh one.
+     */
+    public void invalidateWorkStationSnapshot(Long workStationId) {
+        for (Set<WorkStationVOReader.Part> parts : requestedParts) {
+            snapshotCache.synchronous().invalidate(new SnapshotKey(workStationId, parts));
         }
+    }
+
+    private record SnapshotKey(Long workStationId, Set<WorkStationVOReader.Part> parts) {
+    }
 
-        return workStationVO;
+    /**
+     * the snapshot is parsed from the response stream and only the requested parts are bound.
+     */
+    public CompletableFuture<WorkStationVO> getWorkStationVOAsync(Long workStationId, Set<WorkStationVOReader.Part> parts) {
+        return apiStatsService.record(STATION_ENDPOINT_PREFIX + "GET",
+                        httpUtils.getAsync("http://" + host + ":9040/api?stationCode=" + workStationId,
+                                inputStream -> WorkStationVOReader.read(inputStream, parts)), Objects::nonNull)
+                .thenApply(workStationVO -> {
+                    if (workStationVO == null || workStationVO.getWorkStationStatus() == WorkStationStatusEnum.OFFLINE) {
+                        return null;
+                    }
+                    return workStationVO;
+                });
     }
 
     private static final String WORKSTATION_CACHE = "workstations";
@@ -123,6 +188,12 @@ public class StationService {
     }
 
     public void execute(Long workStationId, ApiCodeEnum apiCodeEnum, Object putWallSlotCode) {
-        httpUtils.put("http://" + host + ":9040/api?stationCode=" + workStationId + "&apiCode=" + apiCodeEnum.name(), putWallSlotCode);
+        executeAsync(workStationId, apiCodeEnum, putWallSlotCode).join();
+    }
+
+    public CompletableFuture<Boolean> executeAsync(Long workStationId, ApiCodeEnum apiCodeEnum, Object putWallSlotCode) {
+        return apiStatsService.record(STATION_ENDPOINT_PREFIX + apiCodeEnum.name(),
+                        httpUtils.putAsync("http://" + host + ":9040/api?stationCode=" + workStationId + "&apiCode=" + apiCodeEnum.name(), putWallSlotCode))
+                .whenComplete((success, throwable) -> invalidateWorkStationSnapshot(workStationId));
     }
 }
@@ -0,0 +1,287 @@
+package org.openwes.mock.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.openwes.mock.config.MockConfig;
+import org.openwes.mock.dto.StockLedgerStatsDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * in-memory ledger of the available qty of every sku batch stock, used to build outbound orders.
+ * <p>
+ * every stock has its own atomic counter, an order line reserves its qty with a CAS on that counter only, so
+ * concurrent orders never ask for more than the ledger holds and do not contend unless they pick the same
+ * stock. the ledger is reloaded from w_sku_batch_stock while it is in use, which replaces the local
+ * reservations by what WES has allocated meanwhile. shortOutboundRatio of the orders get one line asking for
+ * more than is available on purpose.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockLedgerService {
+
+    private static final int PAGE_SIZE = 10_000;
+    private static final long IDLE_MILLIS = 60_000;
+
+    private final DatabaseQueryService databaseQueryService;
+    private final OrderProfileGenerator orderProfileGenerator;
+    private final MockConfig mockConfig;
+
+    @Value("${mock.stock-ledger.max-entries:1000000}")
+    private int maxEntries;
+
+    @Value("${mock.stock-ledger.resync-millis:10000}")
+    private long resyncMillis;
+
+    private volatile Ledger ledger = Ledger.EMPTY;
+    private volatile long lastUsedAtMillis;
+    private volatile long lastResyncAtMillis;
+    private volatile long lastResyncDurationMillis;
+
+    private final LongAdder orders = new LongAdder();
+    private final LongAdder shortOrders = new LongAdder();
+    private final LongAdder reservedLines = new LongAdder();
+    private final LongAdder reservedQty = new LongAdder();
+    private final LongAdder emptyDraws = new LongAdder();
+    private final LongAdder resyncs = new LongAdder();
+
+    /**
+     * resyncs only while orders are generated from the ledger, the first use triggers the first load
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void scheduleResync() {
+        long now = System.currentTimeMillis();
+        if (now - lastUsedAtMillis > IDLE_MILLIS || now - lastResyncAtMillis < resyncMillis) {
+            return;
+        }
+
+        try {
+            resync();
+        } catch (Exception e) {
+            log.error("resync stock ledger error", e);
+        }
+    }
+
+    public void resync() {
+        long start = System.currentTimeMillis();
+        Ledger.Builder builder = new Ledger.Builder();
+        long lastId = 0;
+        while (builder.size() < maxEntries) {
+            List<Map<String, Object>> rows = databaseQueryService.querySkuBatchStockAfter(lastId,
+                    Math.min(PAGE_SIZE, maxEntries - builder.size()));
+            for (Map<String, Object> row : rows) {
+                builder.add(row);
+            }
+            if (rows.size() < PAGE_SIZE) {
+                break;
+            }
+            lastId = ((Number) rows.getLast().get("id")).longValue();
+        }
+
+        ledger = builder.build();
+        lastResyncAtMillis = System.currentTimeMillis();
+        lastResyncDurationMillis = lastResyncAtMillis - start;
+        resyncs.increment();
+        log.debug("stock ledger resynced with {} stocks in {} ms", ledger.size(), lastResyncDurationMillis);
+    }
+
+    /**
+     * lines of one outbound order reserved against the ledger, all from the warehouse of the first line, shaped
+     * like DatabaseQueryService.querySkuBatchStock plus qtyRequired.
+     *
+     * @return the lines, or null while the ledger has not been loaded yet
+     */
+    public List<Map<String, Object>> reserveOrderLines(int lineCount) {
+        lastUsedAtMillis = System.currentTimeMillis();
+        if (resyncs.sum() == 0) {
+            return null;
+        }
+
+        Ledger current = ledger;
+        if (current.size() == 0) {
+            return new ArrayList<>();
+        }
+
+        boolean shortOrder = ThreadLocalRandom.current().nextDouble() < mockConfig.getShortOutboundRatio();
+        List<Map<String, Object>> lines = new ArrayList<>(lineCount);
+        int[] picked = new int[lineCount];
+        String warehouseCode = null;
+
+        for (int draws = 0; lines.size() < lineCount && draws < lineCount * 4; draws++) {
+            int index = orderProfileGenerator.nextIndex(current.size());
+            if (contains(picked, lines.size(), index)
+                    || warehouseCode != null && !warehouseCode.equals(current.warehouseCode(index))) {
+                continue;
+            }
+
+            int available = current.available.get(index);
+            if (available <= 0) {
+                emptyDraws.increment();
+                continue;
+            }
+
+            int qtyRequired;
+            if (shortOrder && lines.isEmpty()) {
+                // the short line takes what is left and asks for more on top
+                qtyRequired = current.reserveAll(index) + orderProfileGenerator.nextQty(Integer.MAX_VALUE);
+            } else {
+                qtyRequired = current.reserve(index, orderProfileGenerator.nextQty(available));
+            }
+            if (qtyRequired <= 0) {
+                emptyDraws.increment();
+                continue;
+            }
+
+            warehouseCode = current.warehouseCode(index);
+            picked[lines.size()] = index;
+            lines.add(current.toRow(index, qtyRequired));
+            reservedQty.add(qtyRequired);
+        }
+
+        if (!lines.isEmpty()) {
+            orders.increment();
+            reservedLines.add(lines.size());
+            if (shortOrder) {
+                shortOrders.increment();
+            }
+        }
+        return lines;
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public StockLedgerStatsDTO stats() {
+        Ledger current = ledger;
+        long availableQty = 0;
+        for (int i = 0; i < current.size(); i++) {
+            availableQty += current.available.get(i);
+        }
+        return StockLedgerStatsDTO.builder()
+                .stocks(current.size())
+                .availableQty(availableQty)
+                .orders(orders.sum())
+                .shortOrders(shortOrders.sum())
+                .reservedLines(reservedLines.sum())
+                .reservedQty(reservedQty.sum())
+                .emptyDraws(emptyDraws.sum())
+                .resyncs(resyncs.sum())
+                .lastResyncAtMillis(lastResyncAtMillis)
+                .lastResyncDurationMillis(lastResyncDurationMillis)
+                .build();
+    }
+
+    /**
+     * one immutable load of the stocks, only the available counters change
+     */
+    private static class Ledger {
+
+        static final Ledger EMPTY = new Builder().build();
+
+        private final String[] skuCodes;
+        private final int[] codes;
+        private final String[] dictionary;
+        private final AtomicIntegerArray available;
+
+        private Ledger(String[] skuCodes, int[] codes, String[] dictionary, int[] available) {
+            this.skuCodes = skuCodes;
+            this.codes = codes;
+            this.dictionary = dictionary;
+            this.available = new AtomicIntegerArray(available);
+        }
+
+        int size() {
+            return skuCodes.length;
+        }
+
+        String warehouseCode(int index) {
+            return dictionary[codes[index] >>> 16];
+        }
+
+        String ownerCode(int index) {
+            return dictionary[codes[index] & 0xffff];
+        }
+
+        /**
+         * @return the reserved qty, less than wanted when less is available
+         */
+        int reserve(int index, int wanted) {
+            while (true) {
+                int current = available.get(index);
+                int reserved = Math.min(current, wanted);
+                if (reserved <= 0) {
+                    return 0;
+                }
+                if (available.compareAndSet(index, current, current - reserved)) {
+                    return reserved;
+                }
+            }
+        }
+
+        int reserveAll(int index) {
+            return Math.max(available.getAndSet(index, 0), 0);
+        }
+
+        Map<String, Object> toRow(int index, int qtyRequired) {
+            Map<String, Object> row = new HashMap<>(8);
+            row.put("skuCode", skuCodes[index]);
+            row.put("ownerCode", ownerCode(index));
+            row.put("warehouseCode", warehouseCode(index));
+            row.put("qtyRequired", qtyRequired);
+            return row;
+        }
+
+        static class Builder {
+
+            private final List<String> skuCodes = new ArrayList<>();
+            private final List<Integer> codes = new ArrayList<>();
+            private final List<Integer> available = new ArrayList<>();
+            private final List<String> dictionary = new ArrayList<>();
+            private final Map<String, Integer> dictionaryIndex = new HashMap<>();
+
+            int size() {
+                return skuCodes.size();
+            }
+
+            void add(Map<String, Object> row) {
+                skuCodes.add((String) row.get("skuCode"));
+                codes.add(dictionaryIndexOf((String) row.get("warehouseCode")) << 16
+                        | dictionaryIndexOf((String) row.get("ownerCode")));
+                available.add(((Number) row.get("available_qty")).intValue());
+            }
+
+            private int dictionaryIndexOf(String code) {
+                return dictionaryIndex.computeIfAbsent(code == null ? "" : code, key -> {
+                    if (dictionary.size() == 1 << 16) {
+                        throw new IllegalStateException("more than 65536 warehouse and owner codes");
+                    }
+                    dictionary.add(key);
+                    return dictionary.size() - 1;
+                });
+            }
+
+            Ledger build() {
+                return new Ledger(skuCodes.toArray(String[]::new),
+                        codes.stream().mapToInt(Integer::intValue).toArray(),
+                        dictionary.toArray(String[]::new),
+                        available.stream().mapToInt(Integer::intValue).toArray());
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.openwes.mock.service;
+
+import lombok.RequiredArgsConstructor;
+import org.openwes.mock.config.MockConfig;
+import org.openwes.mock.constants.SimulatedActionEnum;
+import org.openwes.mock.dto.ThinkTimeDTO;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * samples the think time of simulated operator and robot actions from the distributions in MockConfig
+ */
+@Service
+@RequiredArgsConstructor
+public class ThinkTimeService {
+
+    private static final double LOG_NORMAL_SIGMA = 0.5;
+
+    private final MockConfig mockConfig;
+
+    public long sampleMillis(SimulatedActionEnum action) {
+        ThinkTimeDTO thinkTime = mockConfig.getThinkTimes().get(action);
+        if (thinkTime == null || thinkTime.getDistribution() == null) {
+            return 0;
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double mean = thinkTime.getMeanMillis();
+        double millis = switch (thinkTime.getDistribution()) {
+            case FIXED -> mean;
+            case UNIFORM -> thinkTime.getMaxMillis() > thinkTime.getMinMillis()
+                    ? random.nextDouble(thinkTime.getMinMillis(), thinkTime.getMaxMillis())
+                    : thinkTime.getMinMillis();
+            case EXPONENTIAL -> -mean * Math.log1p(-random.nextDouble());
+            // mu chosen so that the mean of the distribution is meanMillis
+            case LOG_NORMAL -> mean <= 0 ? 0 : Math.exp(Math.log(mean) - LOG_NORMAL_SIGMA * LOG_NORMAL_SIGMA / 2
+                    + LOG_NORMAL_SIGMA * random.nextGaussian());
+        };
+
+        long max = thinkTime.getMaxMillis() > 0 ? thinkTime.getMaxMillis() : Long.MAX_VALUE;
+        return Math.min(Math.max(Math.round(millis), thinkTime.getMinMillis()), max);
+    }
+}
@@ -0,0 +1,124 @@
+package org.openwes.mock.utils;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.openwes.mock.config.MockConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * structured log of WES calls.
+ * <p>
+ * errors and slow calls are always logged, other calls are sampled 1 in {@link MockConfig#getCallLogSampleRate()}.
+ * the calling thread only offers an entry to a bounded lock-free ring buffer, a background thread
+ * does the formatting and the appender I/O. entries are dropped and counted when the buffer is full.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CallLogger {
+
+    private static final Logger CALL_LOG = LoggerFactory.getLogger("org.openwes.mock.call");
+
+    private final MockConfig mockConfig;
+
+    @Value("${mock.call-log.buffer-size:8192}")
+    private int bufferSize;
+
+    private MpscRingBuffer<Entry> buffer;
+    private Thread writer;
+    private volatile boolean running;
+
+    private final LongAdder dropped = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        buffer = new MpscRingBuffer<>(bufferSize);
+        running = true;
+        writer = new Thread(this::drain, "call-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * @return whether the call should be logged, lets the caller skip reading a body nobody will see
+     */
+    public boolean shouldLog(boolean success, long latencyMillis) {
+        if (!success || latencyMillis >= mockConfig.getCallLogSlowThresholdMillis()) {
+            return true;
+        }
+        int sampleRate = mockConfig.getCallLogSampleRate();
+        return sampleRate > 0 && ThreadLocalRandom.current().nextInt(sampleRate) == 0;
+    }
+
+    public void log(String method, String url, int code, boolean success, long latencyMillis, String responseBody) {
+        if (!buffer.offer(new Entry(method, url, code, success, latencyMillis, responseBody, null))) {
+            dropped.increment();
+        }
+    }
+
+    public void logFailure(String method, String url, long latencyMillis, Throwable throwable) {
+        if (!buffer.offer(new Entry(method, url, -1, false, latencyMillis, null, throwable))) {
+            dropped.increment();
+        }
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    private void drain() {
+        while (running || buffer.size() > 0) {
+            Entry entry = buffer.poll();
+            if (entry == null) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+                continue;
+            }
+            try {
+                write(entry);
+            } catch (Exception e) {
+                log.error("call log write error", e);
+            }
+        }
+    }
+
+    private static void write(Entry entry) {
+        if (entry.throwable != null) {
+            CALL_LOG.error("method={} url={} latencyMs={} failure={}", entry.method, entry.url, entry.latencyMillis,
+                    entry.throwable.toString());
+        } else if (!entry.success) {
+            CALL_LOG.error("method={} url={} code={} latencyMs={} response={}", entry.method, entry.url, entry.code,
+                    entry.latencyMillis, entry.responseBody);
+        } else {
+            CALL_LOG.info("method={} url={} code={} latencyMs={} response={}", entry.method, entry.url, entry.code,
+                    entry.latencyMillis, entry.responseBody);
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Entry {
+        private final String method;
+        private final String url;
+        private final int code;
+        private final boolean success;
+        private final long latencyMillis;
+        private final String responseBody;
+        private final Throwable throwable;
+    }
+}
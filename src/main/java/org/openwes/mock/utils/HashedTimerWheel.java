@@ -0,0 +1,218 @@
+package org.openwes.mock.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * hashed timer wheel, in the style of G. Varghese and T. Lauck "Hashed and hierarchical timing wheels".
+ * <p>
+ * a single thread advances the wheel one tick at a time. a task goes into the bucket of its deadline tick
+ * modulo the wheel size, and tasks further away than one revolution count down their remaining rounds each
+ * time the wheel passes them. scheduling only enqueues the task for the timer thread and cancelling only flips
+ * its state, both are lock-free; the timer thread moves new tasks into their buckets and drops cancelled ones.
+ */
+@Slf4j
+public class HashedTimerWheel implements SimulationTimer {
+
+    private static final int INIT = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private final long tickNanos;
+    private final int mask;
+    private final Bucket[] wheel;
+    private final Queue<WheelTimeout> newTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final LongAdder expired = new LongAdder();
+    private final Thread worker;
+    private final long startNanos;
+    private volatile boolean running = true;
+    private volatile long currentTick;
+
+    /**
+     * @param ticksPerWheel rounded up to a power of two
+     */
+    public HashedTimerWheel(String name, long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        this.tickNanos = Math.max(unit.toNanos(tickDuration), 1);
+        int size = Integer.highestOneBit(Math.max(ticksPerWheel, 2) - 1) << 1;
+        this.mask = size - 1;
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    @Override
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        WheelTimeout timeout = new WheelTimeout(task, System.nanoTime() - startNanos + unit.toNanos(Math.max(delay, 0)));
+        pending.incrementAndGet();
+        newTimeouts.offer(timeout);
+        return timeout;
+    }
+
+    @Override
+    public int pending() {
+        return pending.get();
+    }
+
+    @Override
+    public long expired() {
+        return expired.sum();
+    }
+
+    @Override
+    public long lagTicks() {
+        return Math.max((System.nanoTime() - startNanos) / tickNanos - currentTick, 0);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        LockSupport.unpark(worker);
+    }
+
+    private void run() {
+        long tick = 0;
+        while (running) {
+            long deadline = (tick + 1) * tickNanos;
+            long sleepNanos;
+            while (running && (sleepNanos = deadline - (System.nanoTime() - startNanos)) > 0) {
+                LockSupport.parkNanos(sleepNanos);
+            }
+
+            transferNewTimeouts(tick);
+            wheel[(int) (tick & mask)].expire();
+            tick++;
+            currentTick = tick;
+        }
+    }
+
+    /**
+     * bounded per tick so that a burst of scheduling can not starve the expiry of due tasks
+     */
+    private void transferNewTimeouts(long currentTick) {
+        for (int i = 0; i < 100_000; i++) {
+            WheelTimeout timeout = newTimeouts.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state.get() == CANCELLED) {
+                continue;
+            }
+
+            long deadlineTick = Math.max(timeout.deadlineNanos / tickNanos, currentTick);
+            timeout.remainingRounds = (deadlineTick - currentTick) / wheel.length;
+            wheel[(int) (deadlineTick & mask)].add(timeout);
+        }
+    }
+
+    private final class WheelTimeout implements Timeout {
+
+        private final Runnable task;
+        private final long deadlineNanos;
+        private final AtomicInteger state = new AtomicInteger(INIT);
+        private long remainingRounds;
+
+        private WheelTimeout next;
+        private WheelTimeout prev;
+
+        WheelTimeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!state.compareAndSet(INIT, CANCELLED)) {
+                return false;
+            }
+            // the timer thread unlinks it when it passes the bucket
+            pending.decrementAndGet();
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        void expire() {
+            if (!state.compareAndSet(INIT, EXPIRED)) {
+                return;
+            }
+            pending.decrementAndGet();
+            expired.increment();
+            try {
+                task.run();
+            } catch (Throwable t) {
+                log.warn("timer task error", t);
+            }
+        }
+    }
+
+    /**
+     * doubly linked list of timeouts, only touched by the timer thread
+     */
+    private static final class Bucket {
+
+        private WheelTimeout head;
+        private WheelTimeout tail;
+
+        void add(WheelTimeout timeout) {
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void expire() {
+            WheelTimeout timeout = head;
+            while (timeout != null) {
+                WheelTimeout next = timeout.next;
+                if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    timeout.expire();
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        private void remove(WheelTimeout timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.next = null;
+            timeout.prev = null;
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package org.openwes.mock.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * hierarchical timing wheel for millions of pending simulation events, after G. Varghese and T. Lauck
+ * "Hashed and hierarchical timing wheels".
+ * <p>
+ * four levels of 256 buckets each cover 2^32 ticks, a task sits in the level whose span holds its distance to
+ * now and is moved one level down when the wheel above turns, so every task is touched at most four times
+ * whatever its delay, unlike the rounds of a single wheel that are counted down on every revolution.
+ * <p>
+ * a single driver thread owns the buckets. scheduling enqueues the task for it and cancelling flips the task
+ * state and enqueues it for unlinking, both lock-free and O(1). due tasks are handed over to the dispatch
+ * executor so the driver keeps its pace, a rejected handoff runs on the driver.
+ */
+@Slf4j
+public class HierarchicalTimerWheel implements SimulationTimer {
+
+    private static final int LEVELS = 4;
+    private static final int WHEEL_BITS = 8;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final long MAX_SPAN_TICKS = (1L << (LEVELS * WHEEL_BITS)) - 1;
+    private static final int MAX_TRANSFERS_PER_TICK = 1_000_000;
+
+    private static final int INIT = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private static final AtomicIntegerFieldUpdater<WheelTimeout> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(WheelTimeout.class, "state");
+
+    private final long tickNanos;
+    private final Executor dispatcher;
+    private final Bucket[][] levels = new Bucket[LEVELS][WHEEL_SIZE];
+    private final Queue<WheelTimeout> newTimeouts = new ConcurrentLinkedQueue<>();
+    private final Queue<WheelTimeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pending = new AtomicLong();
+    private final LongAdder expired = new LongAdder();
+    private final Thread driver;
+    private final long startNanos;
+    private volatile boolean running = true;
+    private volatile long currentTick;
+
+    /**
+     * @param dispatcher runs the due tasks, Runnable::run keeps them on the driver thread
+     */
+    public HierarchicalTimerWheel(String name, long tickDuration, TimeUnit unit, Executor dispatcher) {
+        this.tickNanos = Math.max(unit.toNanos(tickDuration), 1);
+        this.dispatcher = dispatcher;
+        for (Bucket[] level : levels) {
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                level[i] = new Bucket();
+            }
+        }
+
+        this.startNanos = System.nanoTime();
+        this.driver = new Thread(this::run, name);
+        this.driver.setDaemon(true);
+        this.driver.start();
+    }
+
+    @Override
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        long deadlineNanos = System.nanoTime() - startNanos + unit.toNanos(Math.max(delay, 0));
+        WheelTimeout timeout = new WheelTimeout(task, (deadlineNanos + tickNanos - 1) / tickNanos);
+        pending.incrementAndGet();
+        newTimeouts.offer(timeout);
+        return timeout;
+    }
+
+    @Override
+    public int pending() {
+        return (int) Math.min(pending.get(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public long expired() {
+        return expired.sum();
+    }
+
+    @Override
+    public long lagTicks() {
+        return Math.max((System.nanoTime() - startNanos) / tickNanos - currentTick, 0);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        driver.interrupt();
+    }
+
+    private void run() {
+        long tick = 0;
+        while (running) {
+            long sleepNanos = (tick + 1) * tickNanos - (System.nanoTime() - startNanos);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+
+            advance(tick);
+            tick++;
+            currentTick = tick;
+        }
+    }
+
+    private void advance(long tick) {
+        removeCancelled();
+        for (int level = LEVELS - 1; level > 0; level--) {
+            if ((tick & ((1L << (level * WHEEL_BITS)) - 1)) == 0) {
+                cascade(levels[level][(int) ((tick >>> (level * WHEEL_BITS)) & WHEEL_MASK)], tick);
+            }
+        }
+        transferNewTimeouts(tick);
+        expire(levels[0][(int) (tick & WHEEL_MASK)]);
+    }
+
+    private void removeCancelled() {
+        WheelTimeout timeout;
+        while ((timeout = cancelledTimeouts.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    /**
+     * the bucket of a higher level that the wheel reached, its tasks are now close enough for a lower level
+     */
+    private void cascade(Bucket bucket, long tick) {
+        WheelTimeout timeout;
+        while ((timeout = bucket.poll()) != null) {
+            place(timeout, tick);
+        }
+    }
+
+    /**
+     * bounded per tick so that a burst of scheduling can not starve the expiry of due tasks
+     */
+    private void transferNewTimeouts(long tick) {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            WheelTimeout timeout = newTimeouts.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state == INIT) {
+                place(timeout, tick);
+            }
+        }
+    }
+
+    private void place(WheelTimeout timeout, long tick) {
+        long deadlineTick = Math.max(timeout.deadlineTick, tick);
+        long delta = deadlineTick - tick;
+        if (delta > MAX_SPAN_TICKS) {
+            // parked in the top level and placed again when its bucket comes round
+            deadlineTick = tick + MAX_SPAN_TICKS;
+            delta = MAX_SPAN_TICKS;
+        }
+
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << ((level + 1) * WHEEL_BITS)) {
+            level++;
+        }
+        levels[level][(int) ((deadlineTick >>> (level * WHEEL_BITS)) & WHEEL_MASK)].add(timeout);
+    }
+
+    private void expire(Bucket bucket) {
+        WheelTimeout timeout;
+        while ((timeout = bucket.poll()) != null) {
+            if (!STATE.compareAndSet(timeout, INIT, EXPIRED)) {
+                continue;
+            }
+            pending.decrementAndGet();
+            expired.increment();
+            dispatch(timeout.task);
+        }
+    }
+
+    private void dispatch(Runnable task) {
+        try {
+            dispatcher.execute(() -> runSafely(task));
+        } catch (RejectedExecutionException e) {
+            runSafely(task);
+        }
+    }
+
+    private static void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (Throwable t) {
+            log.warn("timer task error", t);
+        }
+    }
+
+    private final class WheelTimeout implements Timeout {
+
+        private final Runnable task;
+        private final long deadlineTick;
+        private volatile int state = INIT;
+
+        private Bucket bucket;
+        private WheelTimeout next;
+        private WheelTimeout prev;
+
+        WheelTimeout(Runnable task, long deadlineTick) {
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, INIT, CANCELLED)) {
+                return false;
+            }
+            pending.decrementAndGet();
+            cancelledTimeouts.offer(this);
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+    }
+
+    /**
+     * doubly linked list of timeouts, only touched by the driver thread
+     */
+    private static final class Bucket {
+
+        private WheelTimeout head;
+        private WheelTimeout tail;
+
+        void add(WheelTimeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        WheelTimeout poll() {
+            WheelTimeout timeout = head;
+            if (timeout != null) {
+                remove(timeout);
+            }
+            return timeout;
+        }
+
+        void remove(WheelTimeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.next = null;
+            timeout.prev = null;
+            timeout.bucket = null;
+        }
+    }
+}
@@ -1,99 +1,166 @@
 package org.openwes.mock.utils;
 
-import lombok.extern.slf4j.Slf4j;
+import lombok.RequiredArgsConstructor;
 import okhttp3.*;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
-@Slf4j
 @Component
+@RequiredArgsConstructor
 public class HttpUtils {
 
     private static final OkHttpClient client = new OkHttpClient.Builder()
-            .connectTimeout(10, java.util.concurrent.TimeUnit.SECONDS)
-            .readTimeout(30, java.util.concurrent.TimeUnit.SECONDS)
-            .writeTimeout(30, java.util.concurrent.TimeUnit.SECONDS)
+            .connectTimeout(10, TimeUnit.SECONDS)
+            .readTimeout(30, TimeUnit.SECONDS)
+            .writeTimeout(30, TimeUnit.SECONDS)
             .retryOnConnectionFailure(true)
+            .dispatcher(dispatcher())
+            .connectionPool(new ConnectionPool(200, 5, TimeUnit.MINUTES))
             .build();
 
+    private final CallLogger callLogger;
+
     @Value("${api.call.key}")
     private String apiKey;
 
-    public boolean call(String url, Object requestBody) {
+    /**
+     * okhttp only allows 5 concurrent requests per host by default, all the mock traffic goes to the same WES host,
+     * so the limits are raised to keep thousands of asynchronous calls in flight.
+     */
+    private static Dispatcher dispatcher() {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(4096);
+        dispatcher.setMaxRequestsPerHost(4096);
+        return dispatcher;
+    }
 
-        RequestBody body = RequestBody.create(JsonUtils.obj2String(requestBody), MediaType.get("application/json"));
+    public CompletableFuture<Boolean> callAsync(String url, Object requestBody) {
+        Request request = jsonRequest(url).post(jsonBody(requestBody)).build();
+        return enqueue(request, response -> readCallResponse(url, response));
+    }
 
+    /**
+     * read the response body as a stream, the reader only sees the body when the response is successful.
+     * the streamed body is not kept, so a sampled or slow call is logged without it.
+     */
+    public <T> CompletableFuture<T> getAsync(String url, BodyReader<T> bodyReader) {
         Request request = new Request.Builder()
                 .url(url)
-                .header("Content-Type", "application/json")
-                .header("X-API-KEY", apiKey)
-                .post(body)
+                .get()
                 .build();
-
-        try (Response response = client.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                log.error("call url: {} response error, response code: {}", url, response.code());
-                return false;
+        return enqueue(request, response -> {
+            long latencyMillis = latencyMillis(response);
+            if (!response.isSuccessful() || response.body() == null) {
+                callLogger.log("GET", url, response.code(), false, latencyMillis, null);
+                return null;
             }
 
-            String responseBody = "";
-            if (response.body() == null || (responseBody = response.body().string()).isEmpty()) {
-                log.info("call url: {} response: {}", url, responseBody);
-                return true;
+            T body = bodyReader.read(response.body().byteStream());
+            if (callLogger.shouldLog(true, latencyMillis)) {
+                callLogger.log("GET", url, response.code(), true, latencyMillis, null);
             }
-
-            log.info("call url: {} response: {}", url, responseBody);
-
-            java.util.Map map = JsonUtils.string2Object(responseBody, java.util.Map.class);
-            return "0".equals(map.get("code"));
-
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+            return body;
+        });
     }
 
-    public String get(String url) {
+    public CompletableFuture<Boolean> putAsync(String url, Object requestBody) {
+        Request request = jsonRequest(url).put(jsonBody(requestBody)).build();
+        return enqueue(request, response -> readPutResponse(url, response));
+    }
 
-        Request request = new Request.Builder()
+    private Request.Builder jsonRequest(String url) {
+        return new Request.Builder()
                 .url(url)
-                .get()
-                .build();
+                .header("Content-Type", "application/json")
+                .header("X-API-KEY", apiKey);
+    }
 
-        try (Response response = client.newCall(request).execute()) {
-            if (response.body() == null) {
-                log.error("get url: {} response error, response body is null： {}", url, request);
-                return null;
-            }
+    private static RequestBody jsonBody(Object requestBody) {
+        return new JsonRequestBody(requestBody);
+    }
 
-            String body = response.body().string();
-            log.debug("get url: {} response: {}", url, body);
+    private boolean readCallResponse(String url, Response response) throws IOException {
+        long latencyMillis = latencyMillis(response);
+        if (!response.isSuccessful()) {
+            callLogger.log("POST", url, response.code(), false, latencyMillis, null);
+            return false;
+        }
 
-            return body;
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+        String responseBody = response.body() == null ? "" : response.body().string();
+        boolean success = true;
+        if (!responseBody.isEmpty()) {
+            java.util.Map map = JsonUtils.string2Object(responseBody, java.util.Map.class);
+            success = map != null && "0".equals(map.get("code"));
+        }
+
+        if (callLogger.shouldLog(success, latencyMillis)) {
+            callLogger.log("POST", url, response.code(), success, latencyMillis, responseBody);
         }
+        return success;
     }
 
-    public void put(String url, Object requestBody) {
+    /**
+     * the response body is only read when the call is going to be logged.
+     */
+    private boolean readPutResponse(String url, Response response) throws IOException {
+        long latencyMillis = latencyMillis(response);
+        boolean success = response.isSuccessful();
+        if (callLogger.shouldLog(success, latencyMillis)) {
+            callLogger.log("PUT", url, response.code(), success, latencyMillis,
+                    response.body() == null ? null : response.body().string());
+        }
+        return success;
+    }
 
-        RequestBody body = RequestBody.create(JsonUtils.obj2String(requestBody), MediaType.get("application/json"));
+    private static long latencyMillis(Response response) {
+        return response.receivedResponseAtMillis() - response.sentRequestAtMillis();
+    }
 
-        Request request = new Request.Builder()
-                .url(url)
-                .header("Content-Type", "application/json")
-                .header("X-API-KEY", apiKey)
-                .put(body)
-                .build();
+    /**
+     * enqueue the request on the okhttp dispatcher, the response is read and closed on the dispatcher thread,
+     * so no caller thread is blocked during the round trip.
+     */
+    private <T> CompletableFuture<T> enqueue(Request request, ResponseReader<T> reader) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long startNanos = System.nanoTime();
+        Call call = client.newCall(request);
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                callLogger.logFailure(request.method(), request.url().toString(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), e);
+                future.completeExceptionally(e);
+            }
 
-        try (Response response = client.newCall(request).execute()) {
-            if (response.body() == null) {
-                log.error("put url: {} response error, response body is null： {}", url, request);
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    future.complete(reader.read(response));
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
             }
-            log.info("put url: {} response: {}", url, response.body().string());
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        });
+        future.whenComplete((result, throwable) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+        return future;
+    }
+
+    @FunctionalInterface
+    public interface BodyReader<T> {
+        T read(InputStream inputStream) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ResponseReader<T> {
+        T read(Response response) throws IOException;
     }
 }
@@ -0,0 +1,102 @@
+package org.openwes.mock.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * a request body that serializes the payload with jackson straight into the okio sink,
+ * so large order payloads never exist as an intermediate String or byte array.
+ */
+@Slf4j
+public class JsonRequestBody extends RequestBody {
+
+    private static final MediaType JSON = MediaType.get("application/json");
+
+    private static final LongAdder TOTAL_BYTES_WRITTEN = new LongAdder();
+    private static final LongAdder TOTAL_BODIES_WRITTEN = new LongAdder();
+
+    private final Object payload;
+    private volatile long bytesWritten;
+
+    public JsonRequestBody(Object payload) {
+        this.payload = payload;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return JSON;
+    }
+
+    /**
+     * the length is unknown until the payload is serialized, okhttp sends it chunked.
+     */
+    @Override
+    public long contentLength() {
+        return -1;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        CountingOutputStream outputStream = new CountingOutputStream(sink.outputStream());
+        JsonUtils.obj2Stream(outputStream, payload);
+        outputStream.flush();
+
+        bytesWritten = outputStream.count;
+        TOTAL_BYTES_WRITTEN.add(outputStream.count);
+        TOTAL_BODIES_WRITTEN.increment();
+        log.debug("streamed json request body of {} bytes", outputStream.count);
+    }
+
+    /**
+     * bytes written by the last writeTo, okhttp may write the body again when it retries the request.
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public static long getTotalBytesWritten() {
+        return TOTAL_BYTES_WRITTEN.sum();
+    }
+
+    public static long getTotalBodiesWritten() {
+        return TOTAL_BODIES_WRITTEN.sum();
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+
+        private final OutputStream delegate;
+        private long count;
+
+        CountingOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
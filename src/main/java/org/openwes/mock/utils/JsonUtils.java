@@ -1,16 +1,23 @@
 package org.openwes.mock.utils;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.json.JsonWriteFeature;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.List;
 import java.util.TimeZone;
@@ -35,9 +42,15 @@ public class JsonUtils {
      */
     private static final ObjectMapper OBJECT_MAPPER_FOR_WEB = JsonMapper.builder().enable(JsonWriteFeature.WRITE_NUMBERS_AS_STRINGS).build();
 
+    /**
+     * 流式写出策略，输出流由调用方负责关闭
+     */
+    private static final ObjectWriter STREAM_WRITER;
+
     static {
         config(OBJECT_MAPPER);
         config(OBJECT_MAPPER_FOR_WEB);
+        STREAM_WRITER = OBJECT_MAPPER.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     }
 
     /**
@@ -124,6 +137,25 @@ public class JsonUtils {
         }
     }
 
+    /**
+     * 将 Object 直接序列化到输出流，不生成中间 String。如果传入的本身是一个 String，那么直接写出。
+     *
+     * @param outputStream target stream, flushed but not closed
+     * @param object       original object
+     */
+    public static void obj2Stream(OutputStream outputStream, Object object) throws IOException {
+        if (object == null) {
+            return;
+        }
+
+        if (object instanceof String str) {
+            outputStream.write(str.getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+
+        STREAM_WRITER.writeValue(outputStream, object);
+    }
+
     /**
      * string 字符串转对象
      *
@@ -144,6 +176,27 @@ public class JsonUtils {
         return null;
     }
 
+    /**
+     * 基于输入流创建解析器，用于只绑定部分字段的流式解析
+     *
+     * @param inputStream json stream
+     * @return parser sharing the common strategy
+     */
+    public static JsonParser createParser(InputStream inputStream) throws IOException {
+        return OBJECT_MAPPER.createParser(inputStream);
+    }
+
+    /**
+     * 从解析器当前位置读取一个值，解析器需要停在该值的起始 token 上
+     *
+     * @param parser         json parser
+     * @param elementClasses Class object
+     * @return Target object
+     */
+    public static <T> T readValue(JsonParser parser, Class<T> elementClasses) throws IOException {
+        return OBJECT_MAPPER.readValue(parser, elementClasses);
+    }
+
     public static <T> List<T> string2List(String str, Class<T> elementClasses) {
         return string2Collection(str, List.class, elementClasses);
     }
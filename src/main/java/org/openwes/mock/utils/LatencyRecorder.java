@@ -0,0 +1,67 @@
+package org.openwes.mock.utils;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.openwes.mock.dto.LatencyStatsDTO;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * latency distribution and success/error counters of one endpoint.
+ * <p>
+ * latencies are recorded in microseconds into a wait-free hdr histogram with 3 significant digits,
+ * so recording never blocks the calling thread.
+ */
+public class LatencyRecorder {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final String name;
+    private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder successCount = new LongAdder();
+    private final LongAdder errorCount = new LongAdder();
+    private volatile long startNanos = System.nanoTime();
+
+    public LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    public void record(long latencyNanos, boolean success) {
+        long micros = Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(latencyNanos), 0), HIGHEST_TRACKABLE_MICROS);
+        histogram.recordValue(micros);
+        if (success) {
+            successCount.increment();
+        } else {
+            errorCount.increment();
+        }
+    }
+
+    public void reset() {
+        histogram.reset();
+        successCount.reset();
+        errorCount.reset();
+        startNanos = System.nanoTime();
+    }
+
+    public LatencyStatsDTO snapshot() {
+        Histogram copy = histogram.copy();
+        long success = successCount.sum();
+        long error = errorCount.sum();
+        double elapsedSeconds = Math.max((System.nanoTime() - startNanos) / 1_000_000_000D, 0.001D);
+
+        return LatencyStatsDTO.builder()
+                .name(name)
+                .successCount(success)
+                .errorCount(error)
+                .successPerSecond(success / elapsedSeconds)
+                .errorPerSecond(error / elapsedSeconds)
+                .meanMillis(copy.getMean() / 1000D)
+                .p50Millis(copy.getValueAtPercentile(50) / 1000D)
+                .p90Millis(copy.getValueAtPercentile(90) / 1000D)
+                .p99Millis(copy.getValueAtPercentile(99) / 1000D)
+                .p999Millis(copy.getValueAtPercentile(99.9) / 1000D)
+                .maxMillis(copy.getMaxValue() / 1000D)
+                .build();
+    }
+}
@@ -0,0 +1,166 @@
+package org.openwes.mock.utils;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * open addressing hash map from long to long with linear probing.
+ * <p>
+ * keys and values live in two primitive arrays, so an entry costs 16 bytes per slot and nothing per entry
+ * besides that. the table keeps its load at or below 3/4 and doubles when it would go above, which gives
+ * 16 / 0.375..0.75 = 21.3..42.7 bytes per entry depending on where the size sits between two resizes.
+ * key 0 marks an empty slot and is stored as 1 instead, callers should pass well mixed keys.
+ * <p>
+ * writes are serialized, reads are optimistic and only take the read lock when they raced with a write.
+ */
+public class LongLongHashMap {
+
+    private static final long EMPTY = 0L;
+    private static final int MIN_CAPACITY = 16;
+
+    private final StampedLock lock = new StampedLock();
+
+    private Table table;
+    private int size;
+
+    public LongLongHashMap(int expectedSize) {
+        this.table = new Table(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * @return the value of the key or defaultValue when the key is absent
+     */
+    public long get(long key, long defaultValue) {
+        long stamp = lock.tryOptimisticRead();
+        long value = table.find(slotKey(key), defaultValue);
+        if (lock.validate(stamp)) {
+            return value;
+        }
+
+        stamp = lock.readLock();
+        try {
+            return table.find(slotKey(key), defaultValue);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void put(long key, long value) {
+        long stamp = lock.writeLock();
+        try {
+            if ((size + 1) * 4L > table.keys.length * 3L) {
+                resize(table.keys.length << 1);
+            }
+            if (table.insert(slotKey(key), value)) {
+                size++;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void resize(int capacity) {
+        Table current = table;
+        Table resized = new Table(capacity);
+        for (int i = 0; i < current.keys.length; i++) {
+            if (current.keys[i] != EMPTY) {
+                resized.insert(current.keys[i], current.values[i]);
+            }
+        }
+        table = resized;
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int capacity() {
+        long stamp = lock.readLock();
+        try {
+            return table.keys.length;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * bytes held by the two slot arrays, the array headers are left out
+     */
+    public long memoryBytes() {
+        return capacity() * 2L * Long.BYTES;
+    }
+
+    public double bytesPerEntry() {
+        long stamp = lock.readLock();
+        try {
+            return size == 0 ? 0 : table.keys.length * 2D * Long.BYTES / size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private static long slotKey(long key) {
+        return key == EMPTY ? 1L : key;
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        long needed = Math.max((long) Math.ceil(expectedSize / 0.75D), MIN_CAPACITY);
+        return (int) Math.min(Long.highestOneBit(needed - 1) << 1, 1 << 30);
+    }
+
+    /**
+     * keys and values of the same capacity behind one reference, so a reader racing with a resize sees the
+     * arrays of one table and at worst a stale entry that validate throws away
+     */
+    private static final class Table {
+
+        private final long[] keys;
+        private final long[] values;
+
+        Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new long[capacity];
+        }
+
+        long find(long key, long defaultValue) {
+            int mask = keys.length - 1;
+            int slot = (int) key & mask;
+            for (int probes = 0; probes < keys.length; probes++) {
+                long current = keys[slot];
+                if (current == key) {
+                    return values[slot];
+                }
+                if (current == EMPTY) {
+                    return defaultValue;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return defaultValue;
+        }
+
+        /**
+         * @return true when the key was not in the table before
+         */
+        boolean insert(long key, long value) {
+            int mask = keys.length - 1;
+            int slot = (int) key & mask;
+            while (true) {
+                long current = keys[slot];
+                if (current == EMPTY) {
+                    keys[slot] = key;
+                    values[slot] = value;
+                    return true;
+                }
+                if (current == key) {
+                    values[slot] = value;
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+    }
+}
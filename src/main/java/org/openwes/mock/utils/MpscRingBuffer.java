@@ -0,0 +1,67 @@
+package org.openwes.mock.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * bounded lock-free ring buffer for many producers and one consumer.
+ * <p>
+ * producers claim a sequence with a CAS on the tail and publish the element into the claimed slot,
+ * offer fails instead of blocking when the buffer is full. only one thread may call poll.
+ */
+public class MpscRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    public MpscRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException("element");
+        }
+
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head >= slots.length()) {
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+
+        slots.lazySet((int) (sequence & mask), element);
+        return true;
+    }
+
+    /**
+     * @return the next element, or null when the buffer is empty or the next claimed slot is not yet published
+     */
+    public E poll() {
+        long sequence = head;
+        int index = (int) (sequence & mask);
+        E element = slots.get(index);
+        if (element == null) {
+            return null;
+        }
+        slots.lazySet(index, null);
+        head = sequence + 1;
+        return element;
+    }
+
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+}
@@ -0,0 +1,36 @@
+package org.openwes.mock.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * spaces permits evenly at a target rate, a permit that is due waits only for the rest of its interval.
+ * <p>
+ * a rate of 0 or below means unlimited. unused time is not saved up, so there is no burst after an idle
+ * period. meant for a single dispatching thread.
+ */
+public class RateLimiter {
+
+    private long nextPermitNanos = System.nanoTime();
+
+    /**
+     * blocks until the next permit is due at the given rate
+     */
+    public void acquire(double permitsPerSecond) throws InterruptedException {
+        if (permitsPerSecond <= 0) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        long permitAt = Math.max(nextPermitNanos, now);
+        nextPermitNanos = permitAt + (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+
+        long waitNanos;
+        while ((waitNanos = permitAt - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(waitNanos);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+}
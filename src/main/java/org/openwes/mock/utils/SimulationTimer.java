@@ -0,0 +1,40 @@
+package org.openwes.mock.utils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * runs delayed simulation steps without a thread waiting for each of them.
+ * <p>
+ * expired tasks run on the timer thread or a shared dispatcher, so they must only hand work over, e.g. to an
+ * executor or a mailbox.
+ */
+public interface SimulationTimer {
+
+    Timeout schedule(Runnable task, long delay, TimeUnit unit);
+
+    /**
+     * tasks scheduled and neither expired nor cancelled yet
+     */
+    int pending();
+
+    long expired();
+
+    /**
+     * ticks the timer thread is behind the wall clock, stays at 0 or 1 unless it can not keep up
+     */
+    long lagTicks();
+
+    void stop();
+
+    interface Timeout {
+
+        /**
+         * @return true when the task had not run yet and now never will
+         */
+        boolean cancel();
+
+        boolean isCancelled();
+
+        boolean isExpired();
+    }
+}
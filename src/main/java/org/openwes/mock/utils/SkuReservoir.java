@@ -0,0 +1,168 @@
+package org.openwes.mock.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * append-only reservoir of skus for picking random ones without the database.
+ * <p>
+ * entries live in fixed size segments: the ids in a LongBuffer, on the heap or direct, the warehouse and owner
+ * codes as two 16-bit indices into small dictionaries packed into one int, and the sku codes as UTF-8 bytes in a
+ * per segment byte arena. a random pick and reading its id allocate nothing, only turning codes back into
+ * Strings does.
+ * <p>
+ * appends are serialized, reads are lock-free: an entry is written completely before the volatile size that
+ * makes it visible is raised.
+ */
+public class SkuReservoir {
+
+    private static final int SEGMENT_BITS = 16;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+    private static final int MAX_DICTIONARY_SIZE = 1 << 16;
+
+    private final boolean offHeap;
+
+    private volatile Segment[] segments = new Segment[0];
+    private volatile int size;
+
+    private volatile String[] dictionary = new String[0];
+    private final Map<String, Integer> dictionaryIndex = new HashMap<>();
+
+    public SkuReservoir(boolean offHeap) {
+        this.offHeap = offHeap;
+    }
+
+    public synchronized void add(long id, String warehouseCode, String ownerCode, String skuCode) {
+        int index = size;
+        int segmentIndex = index >>> SEGMENT_BITS;
+        if (segmentIndex == segments.length) {
+            Segment[] grown = Arrays.copyOf(segments, segmentIndex + 1);
+            grown[segmentIndex] = new Segment(offHeap);
+            segments = grown;
+        }
+
+        Segment segment = segments[segmentIndex];
+        int offset = index & SEGMENT_MASK;
+        segment.ids.put(offset, id);
+        segment.codes[offset] = dictionaryIndexOf(warehouseCode) << 16 | dictionaryIndexOf(ownerCode);
+        segment.appendSkuCode(offset, skuCode);
+
+        size = index + 1;
+    }
+
+    private int dictionaryIndexOf(String code) {
+        String key = code == null ? "" : code;
+        Integer index = dictionaryIndex.get(key);
+        if (index != null) {
+            return index;
+        }
+        if (dictionary.length == MAX_DICTIONARY_SIZE) {
+            throw new IllegalStateException("more than " + MAX_DICTIONARY_SIZE + " warehouse and owner codes");
+        }
+
+        String[] grown = Arrays.copyOf(dictionary, dictionary.length + 1);
+        grown[dictionary.length] = key;
+        dictionaryIndex.put(key, dictionary.length);
+        dictionary = grown;
+        return grown.length - 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the index of a random entry or -1 when the reservoir is empty
+     */
+    public int randomIndex() {
+        int current = size;
+        return current == 0 ? -1 : ThreadLocalRandom.current().nextInt(current);
+    }
+
+    public long id(int index) {
+        return segment(index).ids.get(index & SEGMENT_MASK);
+    }
+
+    public String warehouseCode(int index) {
+        return dictionary[segment(index).codes[index & SEGMENT_MASK] >>> 16];
+    }
+
+    public String ownerCode(int index) {
+        return dictionary[segment(index).codes[index & SEGMENT_MASK] & 0xffff];
+    }
+
+    public String skuCode(int index) {
+        return segment(index).skuCode(index & SEGMENT_MASK);
+    }
+
+    private Segment segment(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return segments[index >>> SEGMENT_BITS];
+    }
+
+    /**
+     * bytes held by the segments, ids off the heap included
+     */
+    public long memoryBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += segment.memoryBytes();
+        }
+        return bytes;
+    }
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    private static class Segment {
+
+        private final LongBuffer ids;
+        private final int[] codes = new int[SEGMENT_SIZE];
+
+        /**
+         * end of the sku code of every entry in skuCodeBytes, the code of entry i starts at the end of entry i - 1
+         */
+        private final int[] skuCodeEnds = new int[SEGMENT_SIZE];
+        private volatile byte[] skuCodeBytes = new byte[SEGMENT_SIZE * 8];
+
+        Segment(boolean offHeap) {
+            this.ids = offHeap
+                    ? ByteBuffer.allocateDirect(SEGMENT_SIZE * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer()
+                    : LongBuffer.allocate(SEGMENT_SIZE);
+        }
+
+        void appendSkuCode(int offset, String skuCode) {
+            byte[] bytes = skuCode == null ? new byte[0] : skuCode.getBytes(StandardCharsets.UTF_8);
+            int start = offset == 0 ? 0 : skuCodeEnds[offset - 1];
+            int end = start + bytes.length;
+
+            byte[] arena = skuCodeBytes;
+            if (end > arena.length) {
+                arena = Arrays.copyOf(arena, Math.max(end, arena.length + (arena.length >> 1)));
+            }
+            System.arraycopy(bytes, 0, arena, start, bytes.length);
+            skuCodeEnds[offset] = end;
+            skuCodeBytes = arena;
+        }
+
+        String skuCode(int offset) {
+            int start = offset == 0 ? 0 : skuCodeEnds[offset - 1];
+            return new String(skuCodeBytes, start, skuCodeEnds[offset] - start, StandardCharsets.UTF_8);
+        }
+
+        long memoryBytes() {
+            return (long) SEGMENT_SIZE * Long.BYTES + (long) codes.length * Integer.BYTES
+                    + (long) skuCodeEnds.length * Integer.BYTES + skuCodeBytes.length;
+        }
+    }
+}
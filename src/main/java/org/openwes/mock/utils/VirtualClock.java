@@ -0,0 +1,132 @@
+package org.openwes.mock.utils;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.openwes.mock.config.MockConfig;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * time of the simulated warehouse, runs clockCompression times faster than the wall clock.
+ * <p>
+ * the schedulers tick every TICK_MILLIS of wall time and only do their work when their cadence is due in
+ * virtual time, simulated delays are shortened by the compression before they go to the wall clock timer. so
+ * with a compression of 10 a day of warehouse activity takes 2.4 hours and the load is only bounded by WES.
+ * a changed compression applies from then on, virtual time does not jump and delays already scheduled keep
+ * their wall clock length. latencies of WES calls are still measured in wall time.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VirtualClock {
+
+    /**
+     * resolution of the cadences, a period that compresses below it runs once per tick
+     */
+    public static final long TICK_MILLIS = 20;
+
+    private static final double MIN_COMPRESSION = 0.001;
+
+    private final MockConfig mockConfig;
+
+    private final Map<String, Long> nextDueMillis = new ConcurrentHashMap<>();
+    private volatile Anchor anchor = new Anchor(System.nanoTime(), System.currentTimeMillis(), 1);
+
+    public long millis() {
+        return anchor().virtualMillisAt(System.nanoTime());
+    }
+
+    public double compression() {
+        return anchor().compression;
+    }
+
+    public long toWallNanos(long virtualNanos) {
+        return (long) (virtualNanos / anchor().compression);
+    }
+
+    /**
+     * @return true at most once per periodMillis of virtual time for the cadence, missed periods are skipped
+     */
+    public boolean isDue(String cadence, long periodMillis) {
+        long now = millis();
+        boolean[] due = new boolean[1];
+        nextDueMillis.compute(cadence, (key, next) -> {
+            if (next != null && now < next) {
+                return next;
+            }
+            due[0] = true;
+            return next == null || now - next >= periodMillis ? now + periodMillis : next + periodMillis;
+        });
+        return due[0];
+    }
+
+    /**
+     * the timer with its delays read as virtual time
+     */
+    public SimulationTimer compress(SimulationTimer timer) {
+        return new CompressedTimer(timer);
+    }
+
+    private Anchor anchor() {
+        Anchor current = anchor;
+        double compression = Math.max(mockConfig.getClockCompression(), MIN_COMPRESSION);
+        if (compression == current.compression) {
+            return current;
+        }
+
+        synchronized (this) {
+            current = anchor;
+            if (compression != current.compression) {
+                long nowNanos = System.nanoTime();
+                current = new Anchor(nowNanos, current.virtualMillisAt(nowNanos), compression);
+                anchor = current;
+                log.info("virtual clock compression set to {}", compression);
+            }
+            return current;
+        }
+    }
+
+    private record Anchor(long wallNanos, long virtualMillis, double compression) {
+
+        long virtualMillisAt(long nowNanos) {
+            return virtualMillis + (long) ((nowNanos - wallNanos) / 1_000_000D * compression);
+        }
+    }
+
+    private class CompressedTimer implements SimulationTimer {
+
+        private final SimulationTimer timer;
+
+        CompressedTimer(SimulationTimer timer) {
+            this.timer = timer;
+        }
+
+        @Override
+        public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+            return timer.schedule(task, toWallNanos(unit.toNanos(delay)), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int pending() {
+            return timer.pending();
+        }
+
+        @Override
+        public long expired() {
+            return timer.expired();
+        }
+
+        @Override
+        public long lagTicks() {
+            return timer.lagTicks();
+        }
+
+        @Override
+        public void stop() {
+            timer.stop();
+        }
+    }
+}
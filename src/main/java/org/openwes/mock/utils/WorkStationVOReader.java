@@ -0,0 +1,84 @@
+package org.openwes.mock.utils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.openwes.mock.constants.WorkStationModeEnum;
+import org.openwes.mock.constants.WorkStationStatusEnum;
+import org.openwes.mock.dto.WorkStationVO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * streaming reader of the work station snapshot returned by the station api.
+ * <p>
+ * the identity fields are always read, the large areas are only bound when they are requested,
+ * all other sub trees (tips, toolbar, order area and so on) are skipped token by token without binding.
+ */
+public class WorkStationVOReader {
+
+    private WorkStationVOReader() {
+
+    }
+
+    public enum Part {
+        WORK_LOCATION_AREA,
+        SKU_AREA,
+        PUT_WALL_AREA;
+
+        public static final Set<Part> ALL = Collections.unmodifiableSet(EnumSet.allOf(Part.class));
+    }
+
+    public static WorkStationVO read(InputStream inputStream, Set<Part> parts) throws IOException {
+        try (JsonParser parser = JsonUtils.createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+
+            WorkStationVO workStationVO = new WorkStationVO();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.currentName();
+                JsonToken valueToken = parser.nextToken();
+                if (valueToken == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+
+                switch (fieldName) {
+                    case "workStationId" -> workStationVO.setWorkStationId(parser.getValueAsLong());
+                    case "stationCode" -> workStationVO.setStationCode(parser.getValueAsString());
+                    case "warehouseCode" -> workStationVO.setWarehouseCode(parser.getValueAsString());
+                    case "workStationStatus" ->
+                            workStationVO.setWorkStationStatus(JsonUtils.readValue(parser, WorkStationStatusEnum.class));
+                    case "workStationMode" ->
+                            workStationVO.setWorkStationMode(JsonUtils.readValue(parser, WorkStationModeEnum.class));
+                    case "workLocationArea" -> {
+                        if (parts.contains(Part.WORK_LOCATION_AREA)) {
+                            workStationVO.setWorkLocationArea(JsonUtils.readValue(parser, WorkStationVO.WorkLocationArea.class));
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    case "skuArea" -> {
+                        if (parts.contains(Part.SKU_AREA)) {
+                            workStationVO.setSkuArea(JsonUtils.readValue(parser, WorkStationVO.SkuArea.class));
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    case "putWallArea" -> {
+                        if (parts.contains(Part.PUT_WALL_AREA)) {
+                            workStationVO.setPutWallArea(JsonUtils.readValue(parser, WorkStationVO.PutWallArea.class));
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+            return workStationVO;
+        }
+    }
+}
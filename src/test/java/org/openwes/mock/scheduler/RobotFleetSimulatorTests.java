@@ -0,0 +1,133 @@
+package org.openwes.mock.scheduler;
+
+import org.junit.jupiter.api.Test;
+import org.openwes.mock.config.MockConfig;
+import org.openwes.mock.dto.ContainerTaskDTO;
+import org.openwes.mock.dto.RobotFleetStatsDTO;
+import org.openwes.mock.utils.VirtualClock;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RobotFleetSimulatorTests {
+
+    @Test
+    void missionWaitsForReleasedRobot() throws InterruptedException {
+        MockConfig mockConfig = new MockConfig();
+        mockConfig.setRobotFleetSize(2);
+        mockConfig.setRobotSpeedCellsPerSecond(1000);
+        mockConfig.setRobotHandlingMillis(0);
+
+        RobotFleetSimulator fleet = new RobotFleetSimulator(mockConfig, new VirtualClock(mockConfig));
+        ReflectionTestUtils.setField(fleet, "gridWidth", 10);
+        ReflectionTestUtils.setField(fleet, "gridHeight", 10);
+        fleet.start();
+        try {
+            BlockingQueue<ContainerTaskDTO> arrivals = new LinkedBlockingQueue<>();
+            for (int i = 0; i < 3; i++) {
+                ContainerTaskDTO task = ContainerTaskDTO.builder().taskCode("task_" + i).containerCode("c_" + i).build();
+                fleet.dispatch(task, new int[]{i, i}, new int[]{9, 9}, arrivals::add, Runnable::run);
+            }
+
+            ContainerTaskDTO first = arrivals.poll(1, TimeUnit.SECONDS);
+            ContainerTaskDTO second = arrivals.poll(1, TimeUnit.SECONDS);
+            assertNotNull(first);
+            assertNotNull(second);
+            assertTrue(first.getRobotCode().startsWith("robot_"));
+            assertNull(arrivals.poll(200, TimeUnit.MILLISECONDS));
+
+            fleet.release(first.getRobotCode());
+            ContainerTaskDTO third = arrivals.poll(1, TimeUnit.SECONDS);
+            assertNotNull(third);
+            assertEquals(first.getRobotCode(), third.getRobotCode());
+
+            // the counts are published after the arrival callbacks ran
+            Thread.sleep(100);
+            RobotFleetStatsDTO stats = fleet.stats();
+            assertEquals(3, stats.getDispatched());
+            assertEquals(3, stats.getArrived());
+            assertEquals(2, stats.getAtDestination());
+        } finally {
+            fleet.stop();
+        }
+    }
+
+    @Test
+    void nearestIdleRobotTakesTheMission() throws InterruptedException {
+        MockConfig mockConfig = fastFleet(2);
+        RobotFleetSimulator fleet = newFleet(mockConfig);
+        fleet.start();
+        try {
+            BlockingQueue<ContainerTaskDTO> arrivals = new LinkedBlockingQueue<>();
+            fleet.dispatch(task(0), new int[]{0, 0}, new int[]{90, 90}, arrivals::add, Runnable::run);
+            fleet.dispatch(task(1), new int[]{0, 0}, new int[]{5, 5}, arrivals::add, Runnable::run);
+            ContainerTaskDTO first = arrivals.poll(1, TimeUnit.SECONDS);
+            ContainerTaskDTO second = arrivals.poll(1, TimeUnit.SECONDS);
+            assertNotNull(first);
+            assertNotNull(second);
+            ContainerTaskDTO farAway = "task_0".equals(first.getTaskCode()) ? first : second;
+
+            fleet.release(first.getRobotCode());
+            fleet.release(second.getRobotCode());
+            Thread.sleep(100);
+
+            fleet.dispatch(task(2), new int[]{88, 88}, new int[]{80, 80}, arrivals::add, Runnable::run);
+            ContainerTaskDTO next = arrivals.poll(1, TimeUnit.SECONDS);
+            assertNotNull(next);
+            assertEquals(farAway.getRobotCode(), next.getRobotCode());
+        } finally {
+            fleet.stop();
+        }
+    }
+
+    @Test
+    void waitingMissionsArriveWithoutRobotWhenFleetIsRemoved() throws InterruptedException {
+        MockConfig mockConfig = fastFleet(1);
+        RobotFleetSimulator fleet = newFleet(mockConfig);
+        fleet.start();
+        try {
+            BlockingQueue<ContainerTaskDTO> arrivals = new LinkedBlockingQueue<>();
+            fleet.dispatch(task(0), new int[]{0, 0}, new int[]{9, 9}, arrivals::add, Runnable::run);
+            fleet.dispatch(task(1), new int[]{1, 1}, new int[]{9, 9}, arrivals::add, Runnable::run);
+            assertNotNull(arrivals.poll(1, TimeUnit.SECONDS));
+            assertNull(arrivals.poll(200, TimeUnit.MILLISECONDS));
+
+            mockConfig.setRobotFleetSize(0);
+            ContainerTaskDTO handedOver = arrivals.poll(2, TimeUnit.SECONDS);
+            assertNotNull(handedOver);
+            assertEquals("task_1", handedOver.getTaskCode());
+            assertNull(handedOver.getRobotCode());
+            // the counts are published after the arrival callbacks ran
+            Thread.sleep(100);
+            assertEquals(0, fleet.stats().getWaitingMissions());
+        } finally {
+            fleet.stop();
+        }
+    }
+
+    private static MockConfig fastFleet(int robots) {
+        MockConfig mockConfig = new MockConfig();
+        mockConfig.setRobotFleetSize(robots);
+        mockConfig.setRobotSpeedCellsPerSecond(100_000);
+        mockConfig.setRobotHandlingMillis(0);
+        return mockConfig;
+    }
+
+    private static RobotFleetSimulator newFleet(MockConfig mockConfig) {
+        RobotFleetSimulator fleet = new RobotFleetSimulator(mockConfig, new VirtualClock(mockConfig));
+        ReflectionTestUtils.setField(fleet, "gridWidth", 100);
+        ReflectionTestUtils.setField(fleet, "gridHeight", 100);
+        return fleet;
+    }
+
+    private static ContainerTaskDTO task(int i) {
+        return ContainerTaskDTO.builder().taskCode("task_" + i).containerCode("c_" + i).build();
+    }
+}
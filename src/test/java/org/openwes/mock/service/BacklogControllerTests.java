@@ -0,0 +1,57 @@
+package org.openwes.mock.service;
+
+import org.junit.jupiter.api.Test;
+import org.openwes.mock.config.MockConfig;
+import org.openwes.mock.utils.VirtualClock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BacklogControllerTests {
+
+    @Test
+    void rateFollowsBacklogAroundTarget() {
+        MockConfig mockConfig = new MockConfig();
+        mockConfig.setBacklogControlEnabled(true);
+        mockConfig.setOpenMockCreateInboundPlanOrder(true);
+        mockConfig.setTargetInboundBacklog(100);
+        DatabaseQueryService databaseQueryService = mock(DatabaseQueryService.class);
+        BacklogController controller = new BacklogController(databaseQueryService, mockConfig, new VirtualClock(mockConfig));
+
+        when(databaseQueryService.countNewInboundPlanOrders(anyInt())).thenReturn(0);
+        double initialRate = controller.state().getInbound().getRatePerSecond();
+        for (int i = 0; i < 5; i++) {
+            controller.scheduleSample();
+        }
+        double raisedRate = controller.state().getInbound().getRatePerSecond();
+        assertTrue(raisedRate > initialRate * 2);
+
+        when(databaseQueryService.countNewInboundPlanOrders(anyInt())).thenReturn(400);
+        controller.scheduleSample();
+        assertTrue(controller.state().getInbound().getRatePerSecond() < raisedRate);
+        assertEquals(400, controller.state().getInbound().getCountCap());
+
+        when(databaseQueryService.countNewInboundPlanOrders(anyInt())).thenReturn(100);
+        double heldRate = controller.state().getInbound().getRatePerSecond();
+        controller.scheduleSample();
+        assertEquals(heldRate, controller.state().getInbound().getRatePerSecond(), 1e-9);
+        assertEquals(heldRate, controller.state().getInbound().getSustainedRatePerSecond(), 1e-9);
+    }
+
+    @Test
+    void permitsNeverExceedMax() throws InterruptedException {
+        MockConfig mockConfig = new MockConfig();
+        mockConfig.setClockCompression(1000);
+        BacklogController controller = new BacklogController(mock(DatabaseQueryService.class), mockConfig,
+                new VirtualClock(mockConfig));
+
+        assertEquals(0, controller.acquireOutbound(10));
+        Thread.sleep(50);
+        assertEquals(1, controller.acquireOutbound(10));
+        Thread.sleep(50);
+        assertEquals(0, controller.acquireOutbound(0));
+    }
+}
@@ -0,0 +1,59 @@
+package org.openwes.mock.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashedTimerWheelTests {
+
+    @Test
+    void expiresAfterDelayEvenBeyondOneRevolution() throws InterruptedException {
+        SimulationTimer timer = new HashedTimerWheel("test-timer", 1, TimeUnit.MILLISECONDS, 16);
+        try {
+            CountDownLatch latch = new CountDownLatch(2);
+            AtomicLong shortElapsed = new AtomicLong();
+            AtomicLong longElapsed = new AtomicLong();
+            long start = System.nanoTime();
+
+            timer.schedule(() -> {
+                shortElapsed.set(System.nanoTime() - start);
+                latch.countDown();
+            }, 5, TimeUnit.MILLISECONDS);
+            timer.schedule(() -> {
+                longElapsed.set(System.nanoTime() - start);
+                latch.countDown();
+            }, 50, TimeUnit.MILLISECONDS);
+
+            assertTrue(latch.await(2, TimeUnit.SECONDS));
+            assertTrue(shortElapsed.get() >= TimeUnit.MILLISECONDS.toNanos(5));
+            assertTrue(longElapsed.get() >= TimeUnit.MILLISECONDS.toNanos(50));
+            assertEquals(0, timer.pending());
+        } finally {
+            timer.stop();
+        }
+    }
+
+    @Test
+    void cancelledTaskDoesNotRun() throws InterruptedException {
+        SimulationTimer timer = new HashedTimerWheel("test-timer", 1, TimeUnit.MILLISECONDS, 16);
+        try {
+            AtomicBoolean ran = new AtomicBoolean();
+            SimulationTimer.Timeout timeout = timer.schedule(() -> ran.set(true), 20, TimeUnit.MILLISECONDS);
+
+            assertTrue(timeout.cancel());
+            assertEquals(0, timer.pending());
+            Thread.sleep(60);
+            assertFalse(ran.get());
+            assertFalse(timeout.isExpired());
+        } finally {
+            timer.stop();
+        }
+    }
+}
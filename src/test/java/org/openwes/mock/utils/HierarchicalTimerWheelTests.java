@@ -0,0 +1,84 @@
+package org.openwes.mock.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalTimerWheelTests {
+
+    @Test
+    void expiresFromEveryLevelAfterDelay() throws InterruptedException {
+        SimulationTimer timer = new HierarchicalTimerWheel("test-timer", 1, TimeUnit.MILLISECONDS, Runnable::run);
+        try {
+            long[] delays = {0, 3, 255, 256, 700};
+            CountDownLatch latch = new CountDownLatch(delays.length);
+            AtomicLong early = new AtomicLong();
+            long start = System.nanoTime();
+
+            for (long delay : delays) {
+                timer.schedule(() -> {
+                    if (System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(delay)) {
+                        early.incrementAndGet();
+                    }
+                    latch.countDown();
+                }, delay, TimeUnit.MILLISECONDS);
+            }
+
+            assertTrue(latch.await(3, TimeUnit.SECONDS));
+            assertEquals(0, early.get());
+            assertEquals(0, timer.pending());
+            assertEquals(delays.length, timer.expired());
+        } finally {
+            timer.stop();
+        }
+    }
+
+    @Test
+    void cancelledTaskDoesNotRun() throws InterruptedException {
+        SimulationTimer timer = new HierarchicalTimerWheel("test-timer", 1, TimeUnit.MILLISECONDS, Runnable::run);
+        try {
+            AtomicBoolean ran = new AtomicBoolean();
+            SimulationTimer.Timeout near = timer.schedule(() -> ran.set(true), 20, TimeUnit.MILLISECONDS);
+            SimulationTimer.Timeout far = timer.schedule(() -> ran.set(true), 1, TimeUnit.HOURS);
+            Thread.sleep(5);
+
+            assertTrue(near.cancel());
+            assertTrue(far.cancel());
+            assertFalse(far.cancel());
+            assertEquals(0, timer.pending());
+            Thread.sleep(60);
+            assertFalse(ran.get());
+        } finally {
+            timer.stop();
+        }
+    }
+
+    @Test
+    void handsDueTasksToDispatcher() throws InterruptedException {
+        ExecutorService dispatcher = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("test-dispatch").factory());
+        SimulationTimer timer = new HierarchicalTimerWheel("test-timer", 1, TimeUnit.MILLISECONDS, dispatcher);
+        try {
+            CountDownLatch latch = new CountDownLatch(1);
+            AtomicBoolean onDispatcher = new AtomicBoolean();
+            timer.schedule(() -> {
+                onDispatcher.set("test-dispatch".equals(Thread.currentThread().getName()));
+                latch.countDown();
+            }, 2, TimeUnit.MILLISECONDS);
+
+            assertTrue(latch.await(1, TimeUnit.SECONDS));
+            assertTrue(onDispatcher.get());
+        } finally {
+            timer.stop();
+            dispatcher.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.openwes.mock.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongLongHashMapTests {
+
+    @Test
+    void putAndGetAcrossResizes() {
+        LongLongHashMap map = new LongLongHashMap(16);
+        for (long i = 1; i <= 100_000; i++) {
+            map.put(i * 0x9e3779b97f4a7c15L, i);
+        }
+        map.put(0L, 7L);
+
+        assertEquals(100_001, map.size());
+        for (long i = 1; i <= 100_000; i++) {
+            assertEquals(i, map.get(i * 0x9e3779b97f4a7c15L, -1));
+        }
+        assertEquals(7L, map.get(0L, -1));
+        assertEquals(-1, map.get(42L, -1));
+
+        map.put(0x9e3779b97f4a7c15L, 99L);
+        assertEquals(99L, map.get(0x9e3779b97f4a7c15L, -1));
+        assertEquals(100_001, map.size());
+    }
+
+    /**
+     * the load of 10M skus in a 2^24 slot table, 0.6 at 16 bytes per slot gives 26.7 bytes per entry.
+     * LongLongHashMapBenchmark measures the 10M table itself
+     */
+    @Test
+    void bytesPerEntryAtTenMillionLoad() {
+        int entries = (int) ((1 << 18) * 0.6);
+        LongLongHashMap map = new LongLongHashMap(entries);
+        SplittableRandom random = new SplittableRandom(1);
+        while (map.size() < entries) {
+            map.put(random.nextLong(), map.size() + 1);
+        }
+
+        assertEquals(1 << 18, map.capacity());
+        assertEquals((1 << 18) * 16L, map.memoryBytes());
+        assertTrue(map.bytesPerEntry() < 27);
+    }
+}
@@ -0,0 +1,38 @@
+package org.openwes.mock.utils;
+
+import org.junit.jupiter.api.Test;
+import org.openwes.mock.config.MockConfig;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VirtualClockTests {
+
+    @Test
+    void compressedTimeRunsFasterWithoutJumping() throws InterruptedException {
+        MockConfig mockConfig = new MockConfig();
+        VirtualClock clock = new VirtualClock(mockConfig);
+
+        long before = clock.millis();
+        mockConfig.setClockCompression(10);
+        long switched = clock.millis();
+        assertTrue(switched - before < 1_000, "jumped " + (switched - before));
+
+        Thread.sleep(200);
+        long elapsed = clock.millis() - switched;
+        assertTrue(elapsed >= 2_000, "elapsed " + elapsed);
+        assertTrue(elapsed < 20_000, "elapsed " + elapsed);
+    }
+
+    @Test
+    void cadenceIsDueOncePerVirtualPeriod() throws InterruptedException {
+        MockConfig mockConfig = new MockConfig();
+        mockConfig.setClockCompression(10);
+        VirtualClock clock = new VirtualClock(mockConfig);
+
+        assertTrue(clock.isDue("test", 10_000));
+        assertFalse(clock.isDue("test", 10_000));
+        Thread.sleep(1_100);
+        assertTrue(clock.isDue("test", 10_000));
+    }
+}
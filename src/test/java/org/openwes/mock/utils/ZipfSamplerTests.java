@@ -0,0 +1,33 @@
+package org.openwes.mock.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ZipfSamplerTests {
+
+    @Test
+    void ranksFollowZipfLaw() {
+        int n = 1000;
+        double exponent = 1.0;
+        ZipfSampler sampler = new ZipfSampler(n, exponent);
+
+        int samples = 1_000_000;
+        int[] counts = new int[n + 1];
+        for (int i = 0; i < samples; i++) {
+            int rank = sampler.sample();
+            assertTrue(rank >= 1 && rank <= n);
+            counts[rank]++;
+        }
+
+        double harmonic = 0;
+        for (int k = 1; k <= n; k++) {
+            harmonic += 1 / Math.pow(k, exponent);
+        }
+        for (int k : new int[]{1, 2, 10}) {
+            double expected = samples / Math.pow(k, exponent) / harmonic;
+            assertEquals(expected, counts[k], expected * 0.05);
+        }
+    }
+}